@@ -0,0 +1,133 @@
+package org.phoenicis.javafx.collections.benchmarks;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.phoenicis.javafx.collections.ConcatenatedList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the hot paths of {@link ConcatenatedList}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcatenatedListBenchmark {
+    /**
+     * The number of inner lists
+     */
+    @Param({ "10", "1000" })
+    public int listCount;
+
+    /**
+     * The number of elements in every inner list
+     */
+    @Param({ "10", "1000" })
+    public int listSize;
+
+    /**
+     * True if the concatenated list keeps snapshots of the inner lists
+     */
+    @Param({ "true", "false" })
+    public boolean keepSnapshots;
+
+    private ObservableList<ObservableList<Integer>> source;
+
+    private ObservableList<Integer> middleList;
+
+    private List<Integer> middleValues;
+
+    private ConcatenatedList<Integer> concatenatedList;
+
+    private boolean ascending;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = FXCollections.observableArrayList();
+
+        for (int i = 0; i < listCount; i++) {
+            final ObservableList<Integer> innerList = FXCollections.observableArrayList();
+
+            for (int j = 0; j < listSize; j++) {
+                innerList.add(i * listSize + j);
+            }
+
+            source.add(innerList);
+        }
+
+        middleList = source.get(listCount / 2);
+        middleValues = new ArrayList<>(middleList);
+
+        concatenatedList = new ConcatenatedList<>(source, keepSnapshots);
+
+        // consume all changes like a real listener would do
+        concatenatedList.addListener((ListChangeListener.Change<? extends Integer> change) -> {
+            while (change.next()) {
+                // nothing to do
+            }
+        });
+    }
+
+    @Benchmark
+    public int size() {
+        return concatenatedList.size();
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (int i = 0; i < concatenatedList.size(); i++) {
+            blackhole.consume(concatenatedList.get(i));
+        }
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Integer value : concatenatedList) {
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void innerAddRemove() {
+        final int middle = listSize / 2;
+
+        middleList.add(middle, -1);
+        middleList.remove(middle);
+    }
+
+    @Benchmark
+    public void innerPermute() {
+        FXCollections.sort(middleList, ascending ? Comparator.naturalOrder() : Comparator.reverseOrder());
+
+        ascending = !ascending;
+    }
+
+    @Benchmark
+    public void innerSetAll() {
+        middleList.setAll(middleValues);
+    }
+
+    @Benchmark
+    public void outerAddRemove() {
+        source.add(0, FXCollections.observableArrayList(middleValues));
+        source.remove(0);
+    }
+
+    @Benchmark
+    public void outerPermute() {
+        final Comparator<List<Integer>> comparator = Comparator.comparing(list -> list.isEmpty() ? -1 : list.get(0));
+
+        FXCollections.sort(source, ascending ? comparator : comparator.reversed());
+
+        ascending = !ascending;
+    }
+}
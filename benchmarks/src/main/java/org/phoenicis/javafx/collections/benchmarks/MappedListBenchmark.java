@@ -0,0 +1,155 @@
+package org.phoenicis.javafx.collections.benchmarks;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.phoenicis.javafx.collections.MappedList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmarks for the hot paths of {@link MappedList}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappedListBenchmark {
+    /**
+     * The number of elements in the source list
+     */
+    @Param({ "1000", "100000" })
+    public int size;
+
+    private final Function<Integer, String> firstMapper = String::valueOf;
+
+    private final Function<Integer, String> secondMapper = value -> value + "!";
+
+    private List<Integer> values;
+
+    private List<Integer> chunk;
+
+    private ObservableList<Integer> source;
+
+    private MappedList<String, Integer> mappedList;
+
+    /**
+     * A mapped list of the same size as {@link #mappedList}, whose source has been modified by many small random
+     * insertions and removals
+     */
+    private MappedList<String, Integer> editedList;
+
+    private boolean ascending;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+        }
+
+        chunk = new ArrayList<>(values.subList(0, size / 10));
+
+        source = FXCollections.observableArrayList(values);
+        mappedList = new MappedList<>(source, firstMapper);
+
+        final ObservableList<Integer> editedSource = FXCollections.observableArrayList(values);
+        editedList = new MappedList<>(editedSource, firstMapper);
+
+        // splits the stored values at many positions without changing the number of values
+        final Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            final int count = 1 + random.nextInt(8);
+            final int from = random.nextInt(editedSource.size() - count + 1);
+
+            editedSource.remove(from, from + count);
+            editedSource.addAll(random.nextInt(editedSource.size() + 1), values.subList(0, count));
+        }
+
+        // consume all changes like a real listener would do
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> {
+            while (change.next()) {
+                // nothing to do
+            }
+        });
+    }
+
+    @Benchmark
+    public int size() {
+        return mappedList.size();
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (int i = 0; i < mappedList.size(); i++) {
+            blackhole.consume(mappedList.get(i));
+        }
+    }
+
+    @Benchmark
+    public void getAfterEdits(Blackhole blackhole) {
+        for (int i = 0; i < editedList.size(); i++) {
+            blackhole.consume(editedList.get(i));
+        }
+    }
+
+    /**
+     * The baseline for {@link #get(Blackhole)}, which reads the same number of values from an {@link ArrayList}
+     */
+    @Benchmark
+    public void arrayListGet(Blackhole blackhole) {
+        for (int i = 0; i < values.size(); i++) {
+            blackhole.consume(values.get(i));
+        }
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (String value : mappedList) {
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void addRemove() {
+        final int middle = size / 2;
+
+        source.add(middle, -1);
+        source.remove(middle);
+    }
+
+    @Benchmark
+    public void addAllRemoveRange() {
+        final int middle = size / 2;
+
+        source.addAll(middle, chunk);
+        source.remove(middle, middle + chunk.size());
+    }
+
+    @Benchmark
+    public void permute() {
+        FXCollections.sort(source, ascending ? Comparator.naturalOrder() : Comparator.reverseOrder());
+
+        ascending = !ascending;
+    }
+
+    @Benchmark
+    public void mapperSwap() {
+        mappedList.setMapper(mappedList.getMapper() == firstMapper ? secondMapper : firstMapper);
+    }
+
+    @Benchmark
+    public void setAll() {
+        source.setAll(values);
+    }
+}
@@ -0,0 +1,108 @@
+package org.phoenicis.javafx.collections.benchmarks;
+
+import javafx.beans.Observable;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.phoenicis.javafx.collections.MappedList;
+import org.phoenicis.javafx.collections.TransformationListBase;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the change propagation through a chain of {@link TransformationListBase} instances.
+ * The source list reports changes of the value properties of its elements as updates
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformationChainBenchmark {
+    /**
+     * The number of chained transformation lists
+     */
+    @Param({ "1", "4", "16" })
+    public int depth;
+
+    /**
+     * The number of elements in the source list
+     */
+    @Param({ "10000" })
+    public int size;
+
+    private final Comparator<IntegerProperty> ascendingOrder = Comparator.comparingInt(IntegerProperty::get);
+
+    private final Comparator<IntegerProperty> descendingOrder = ascendingOrder.reversed();
+
+    private final IntegerProperty inserted = new SimpleIntegerProperty(-1);
+
+    private ObservableList<IntegerProperty> source;
+
+    private ObservableList<Integer> chain;
+
+    private boolean ascending;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = FXCollections.observableArrayList(property -> new Observable[] { property });
+
+        for (int i = 0; i < size; i++) {
+            source.add(new SimpleIntegerProperty(i));
+        }
+
+        chain = new MappedList<>(source, IntegerProperty::get);
+
+        for (int i = 1; i < depth; i++) {
+            chain = new MappedList<Integer, Integer>(chain, value -> value);
+        }
+
+        // consume all changes like a real listener would do
+        chain.addListener((ListChangeListener.Change<? extends Integer> change) -> {
+            while (change.next()) {
+                // nothing to do
+            }
+        });
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (int i = 0; i < chain.size(); i++) {
+            blackhole.consume(chain.get(i));
+        }
+    }
+
+    @Benchmark
+    public void addRemove() {
+        final int middle = size / 2;
+
+        source.add(middle, inserted);
+        source.remove(middle);
+    }
+
+    @Benchmark
+    public void update() {
+        final IntegerProperty property = source.get(size / 2);
+
+        // the extractor of the source list reports the changed property as an update
+        property.set(property.get() + 1);
+    }
+
+    @Benchmark
+    public void replace() {
+        source.set(size / 2, source.get(size / 2));
+    }
+
+    @Benchmark
+    public void permute() {
+        FXCollections.sort(source, ascending ? ascendingOrder : descendingOrder);
+
+        ascending = !ascending;
+    }
+}
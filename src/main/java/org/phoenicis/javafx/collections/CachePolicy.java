@@ -0,0 +1,86 @@
+package org.phoenicis.javafx.collections;
+
+import java.lang.ref.SoftReference;
+
+/**
+ * A policy deciding how the memoized values of a {@link LazyMappedList} are stored and when they are evicted.
+ * The cached values are kept in least recently used order, i.e. if the cache is full, the least recently used value
+ * is evicted first
+ */
+public interface CachePolicy {
+    /**
+     * Wraps the given value before it is stored inside the cache
+     *
+     * @param value The value, which is never <code>null</code>
+     * @return The object stored inside the cache
+     */
+    Object store(Object value);
+
+    /**
+     * Unwraps the given stored object
+     *
+     * @param stored The stored object returned by {@link #store(Object)}
+     * @return The stored value or <code>null</code> if the value is not available anymore
+     */
+    Object load(Object stored);
+
+    /**
+     * Checks whether the cache exceeds its capacity with the given number of cached values.
+     * If this method returns true the least recently used value is evicted
+     *
+     * @param size The number of cached values
+     * @return True if the least recently used value should be evicted, false otherwise
+     */
+    boolean isExceeded(int size);
+
+    /**
+     * Creates a {@link CachePolicy} holding at most <code>capacity</code> values with strong references
+     *
+     * @param capacity The maximum number of cached values
+     * @return A new least recently used {@link CachePolicy}
+     */
+    static CachePolicy leastRecentlyUsed(int capacity) {
+        return new CachePolicy() {
+            @Override
+            public Object store(Object value) {
+                return value;
+            }
+
+            @Override
+            public Object load(Object stored) {
+                return stored;
+            }
+
+            @Override
+            public boolean isExceeded(int size) {
+                return size > capacity;
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link CachePolicy} holding at most <code>capacity</code> values with {@link SoftReference}s.
+     * The garbage collector is allowed to reclaim the cached values when memory is low
+     *
+     * @param capacity The maximum number of cached values
+     * @return A new soft reference {@link CachePolicy}
+     */
+    static CachePolicy softReferences(int capacity) {
+        return new CachePolicy() {
+            @Override
+            public Object store(Object value) {
+                return new SoftReference<>(value);
+            }
+
+            @Override
+            public Object load(Object stored) {
+                return ((SoftReference<?>) stored).get();
+            }
+
+            @Override
+            public boolean isExceeded(int size) {
+                return size > capacity;
+            }
+        };
+    }
+}
@@ -3,51 +3,111 @@ package org.phoenicis.javafx.collections;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * An implementation of a concatenated {@link ObservableList}, which concatenates the values of multiple
- * {@link ObservableList}s into a single {@link ObservableList}
+ * {@link ObservableList}s into a single {@link ObservableList}.
+ * <p>
+ * By default the list keeps an internal snapshot of every inner list. Alternatively the list can be created in a
+ * snapshot-free mode, in which only the sizes of the inner lists are stored and the values are read directly from
+ * the inner lists. In this mode the memory overhead only depends on the number of inner lists, but the inner lists
+ * must not be read through this list by {@link ListChangeListener}s that are notified before this list.
+ * <p>
+ * The internal snapshots are persistent structures, which share their unmodified parts with their previous versions.
+ * Therefore {@link #snapshot()} returns an immutable copy of all values, which can be read by other threads, in time
+ * depending only on the number of inner lists
+ * <p>
+ * The inner lists are kept together with their sizes in a balanced tree. Every listener on an inner list holds the
+ * node of its inner list and resolves its current offset in logarithmic time, therefore inserting or removing inner
+ * lists does not touch the listeners of the other inner lists.
+ * <p>
+ * If the same {@link ObservableList} instance occurs multiple times in the source list, only a single listener and a
+ * single snapshot are kept for it. A change of such an inner list is propagated to all of its occurrences at once.
+ * <p>
+ * Optionally the listeners on the inner lists can be weak, which allows the list to be garbage collected while the
+ * inner lists are still in use. In any case {@link #dispose()} removes all listeners from the inner lists
  *
  * @param <E> The instance type of the elements in the concatenated lists
  */
 public class ConcatenatedList<E> extends TransformationListBase<E, ObservableList<? extends E>> {
     /**
-     * A list containing the created {@link ListChangeListener} instances for the {@link ObservableList}s in the source list.
-     * This list is required to allow for the removal of a listener when an {@link ObservableList} is removed
+     * A tree containing one node per occurrence of an inner list in the source list, whose weight is the size of the
+     * inner list
      */
-    private final List<ListChangeListener<E>> innerListeners;
+    private final IndexedTree<InnerList> innerLists;
 
     /**
-     * An internal copy of the source list of lists
+     * The subscribed inner lists, identified by the identity of their {@link ObservableList}
      */
-    private final List<List<? extends E>> expandedValues;
+    private final Map<ObservableList<? extends E>, InnerList> subscriptions;
+
+    /**
+     * True if the values of the inner lists are copied into internal snapshots
+     */
+    private final boolean keepSnapshots;
+
+    /**
+     * True if the listeners on the inner lists are weak
+     */
+    private final boolean weakListeners;
+
+    /**
+     * The last result of {@link #snapshot()} or <code>null</code> if this list has changed since then
+     */
+    private List<E> cachedSnapshot;
 
     /**
      * Constructor
      *
-     * @param source A list of lists which should be concatenated
+     * @param source        A list of lists which should be concatenated
+     * @param keepSnapshots True if the values of the inner lists should be copied into internal snapshots,
+     *                      false if the values should be read directly from the inner lists
+     * @param weakListeners True if the listeners on the inner lists should be weak
      */
-    public ConcatenatedList(ObservableList<? extends ObservableList<? extends E>> source) {
+    public ConcatenatedList(ObservableList<? extends ObservableList<? extends E>> source, boolean keepSnapshots,
+            boolean weakListeners) {
         super(source);
 
-        this.innerListeners = new ArrayList<>();
-        this.expandedValues = source.stream().map(ArrayList::new).collect(Collectors.toList());
-
-        for (int innerListIndex = 0; innerListIndex < source.size(); innerListIndex++) {
-            final ObservableList<? extends E> innerList = getSource().get(innerListIndex);
+        this.innerLists = new IndexedTree<>();
+        this.subscriptions = new IdentityHashMap<>();
+        this.keepSnapshots = keepSnapshots;
+        this.weakListeners = weakListeners;
 
-            addUpdateListener(innerList, innerListIndex);
-        }
+        insertInnerLists(0, source);
 
         fireInitialisationChange();
     }
 
+    /**
+     * Constructor
+     *
+     * @param source        A list of lists which should be concatenated
+     * @param keepSnapshots True if the values of the inner lists should be copied into internal snapshots,
+     *                      false if the values should be read directly from the inner lists
+     */
+    public ConcatenatedList(ObservableList<? extends ObservableList<? extends E>> source, boolean keepSnapshots) {
+        this(source, keepSnapshots, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source A list of lists which should be concatenated
+     */
+    public ConcatenatedList(ObservableList<? extends ObservableList<? extends E>> source) {
+        this(source, true);
+    }
+
     /**
      * Creates a new {@link ConcatenatedList} concatenating the given prefix values and the given
      * {@link ObservableList list}. In the created {@link ConcatenatedList} the prefix values are in
@@ -106,7 +166,9 @@ public class ConcatenatedList<E> extends TransformationListBase<E, ObservableLis
     }
 
     /**
-     * Creates a new {@link ConcatenatedList} with the given {@link ObservableList} of lists
+     * Creates a new {@link ConcatenatedList} with the given {@link ObservableList} of lists.
+     * The lists are copied, therefore later modifications of the given lists aren't reflected by the concatenated list.
+     * To concatenate observable lists without any copies use a {@link FlatMappedList} instead
      *
      * @param list The lists, which should be concatenated
      * @param <F>  The instance type of the elements in the to be concatenated lists
@@ -117,41 +179,12 @@ public class ConcatenatedList<E> extends TransformationListBase<E, ObservableLis
     }
 
     /**
-     * Gets the first index in the target list belonging to an item in the list marked by the given
-     * <code>sourceIndex</code>
+     * Checks whether this list is in snapshot-free mode, i.e. whether it only keeps the sizes of the inner lists
      *
-     * @param sourceIndex The index marking a list in the source list
-     * @return The first index in the target list belonging to an item in the list marked by <code>sourceIndex</code>
+     * @return True if this list is in snapshot-free mode, false otherwise
      */
-    private int getFirstIndex(int sourceIndex) {
-        int position = 0;
-
-        for (int i = 0; i < sourceIndex; i++) {
-            final List<? extends E> innerList = expandedValues.get(i);
-
-            position += innerList.size();
-        }
-
-        return position;
-    }
-
-    /**
-     * Gets the last index in the target list belonging to an item in the list marked by the given
-     * <code>sourceIndex</code>
-     *
-     * @param sourceIndex The index marking a list in the source list
-     * @return The last index in the target list belonging to an item in the list marked by <code>sourceIndex</code>
-     */
-    private int getLastIndexPlusOne(int sourceIndex) {
-        int position = 0;
-
-        for (int i = 0; i <= sourceIndex; i++) {
-            final List<? extends E> innerList = expandedValues.get(i);
-
-            position += innerList.size();
-        }
-
-        return position;
+    public boolean isSnapshotFree() {
+        return !keepSnapshots;
     }
 
     /**
@@ -163,19 +196,7 @@ public class ConcatenatedList<E> extends TransformationListBase<E, ObservableLis
             throw new IndexOutOfBoundsException();
         }
 
-        int sum = 0;
-        int sourceIndex = -1;
-
-        for (List<? extends E> innerList : expandedValues) {
-            if (index < sum) {
-                break;
-            }
-
-            sum += innerList.size();
-            sourceIndex++;
-        }
-
-        return sourceIndex;
+        return innerLists.rank(innerLists.findByOffset(index));
     }
 
     /**
@@ -183,7 +204,7 @@ public class ConcatenatedList<E> extends TransformationListBase<E, ObservableLis
      */
     @Override
     public int getViewIndex(int index) {
-        return getFirstIndex(index);
+        return innerLists.offsetOfRank(index);
     }
 
     /**
@@ -195,28 +216,68 @@ public class ConcatenatedList<E> extends TransformationListBase<E, ObservableLis
             throw new IndexOutOfBoundsException();
         }
 
-        E result = null;
-        int start = 0;
+        final IndexedTree.Node<InnerList> node = innerLists.findByOffset(index);
 
-        for (List<? extends E> innerList : expandedValues) {
-            if (start + innerList.size() > index) {
-                result = innerList.get(index - start);
+        return node.getValue().getValues().get(index - innerLists.offset(node));
+    }
 
-                break;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return innerLists.totalWeight();
+    }
+
+    /**
+     * Creates an immutable copy of the current values of this list, which is not affected by later changes of this list
+     * and can be read by arbitrary threads.
+     * The copy shares its structure with the internal snapshots of the inner lists and is created in
+     * <code>O(k log n)</code> time, where <code>k</code> is the number of inner lists. The copy is reused until this
+     * list changes. In snapshot-free mode all values need to be copied
+     *
+     * @return An immutable copy of the current values
+     */
+    public List<E> snapshot() {
+        if (cachedSnapshot == null) {
+            if (keepSnapshots) {
+                PersistentVector<E> result = PersistentVector.empty();
+
+                for (IndexedTree.Node<InnerList> node = innerLists.first(); node != null; node = IndexedTree
+                        .next(node)) {
+                    result = result.concat(node.getValue().snapshot);
+                }
+
+                cachedSnapshot = result;
             } else {
-                start += innerList.size();
+                cachedSnapshot = PersistentVector.of(this);
             }
         }
 
-        return result;
+        return cachedSnapshot;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public int size() {
-        return expandedValues.stream().mapToInt(List::size).sum();
+    protected void sourceChanged(ListChangeListener.Change<? extends ObservableList<? extends E>> change) {
+        cachedSnapshot = null;
+
+        super.sourceChanged(change);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void release() {
+        cachedSnapshot = null;
+
+        subscriptions.values().forEach(InnerList::unsubscribe);
+        subscriptions.clear();
+
+        innerLists.clear();
     }
 
     /**
@@ -227,28 +288,34 @@ public class ConcatenatedList<E> extends TransformationListBase<E, ObservableLis
         final int from = change.getFrom();
         final int to = change.getTo();
 
-        final int expandedFrom = getFirstIndex(from);
-        final int expandedTo = getLastIndexPlusOne(to - 1);
-
         if (to > from) {
-            final List<? extends E> beforePermutation = expandedValues.stream().flatMap(List::stream)
-                    .collect(Collectors.toList());
-            final List<List<? extends E>> valuesClone = new ArrayList<>(expandedValues);
+            final int expandedFrom = innerLists.offsetOfRank(from);
+            final int expandedTo = innerLists.offsetOfRank(to);
+
+            // every inner list is moved as a block, which keeps the order inside of the block
+            final int[] perm = borrowPermutation(expandedTo - expandedFrom);
+
+            // the listeners of the inner lists resolve their offsets through their nodes, which are all detached
+            // first, because an inner list can occur multiple times inside of the permuted range
+            IndexedTree.Node<InnerList> node = innerLists.get(from);
+            for (int i = from; i < to; i++) {
+                node.getValue().nodes.remove(node);
 
-            for (int i = from; i < to; ++i) {
-                valuesClone.set(i, expandedValues.get(change.getPermutation(i)));
+                node = IndexedTree.next(node);
             }
 
-            this.expandedValues.clear();
-            this.expandedValues.addAll(valuesClone);
+            innerLists.permute(change, perm);
 
-            final List<? extends E> afterPermutation = expandedValues.stream().flatMap(List::stream)
-                    .collect(Collectors.toList());
+            node = innerLists.get(from);
+            for (int i = from; i < to; i++) {
+                node.getValue().nodes.add(node);
 
-            final int[] perm = beforePermutation.stream()
-                    .mapToInt(afterPermutation::indexOf).toArray();
+                node = IndexedTree.next(node);
+            }
 
-            nextPermutation(expandedFrom, expandedTo, perm);
+            if (expandedTo > expandedFrom) {
+                nextPermutation(expandedFrom, expandedTo, perm);
+            }
         }
     }
 
@@ -260,45 +327,43 @@ public class ConcatenatedList<E> extends TransformationListBase<E, ObservableLis
         final int from = change.getFrom();
         final int to = change.getTo();
 
+        IndexedTree.Node<InnerList> node = innerLists.get(from);
         for (int i = from; i < to; i++) {
-            final ObservableList<? extends E> oldValues = change.getRemoved().get(i - from);
-
-            // remove the update listener form the old observable list
-            removeUpdateListener(oldValues, i);
-
-            final ObservableList<? extends E> newValues = change.getAddedSubList().get(i - from);
+            final InnerList oldInnerList = node.getValue();
+            final ObservableList<? extends E> newValues = getSource().get(i);
 
-            expandedValues.set(i, new ArrayList<>(newValues));
+            final int expandedFrom = innerLists.offset(node);
 
-            // add an update listener to the new observable list
-            addUpdateListener(newValues, i);
+            if (oldInnerList.values == newValues) {
+                // the inner list itself has been reported as updated
+                for (int index = expandedFrom; index < expandedFrom + newValues.size(); index++) {
+                    nextUpdate(index);
+                }
+            } else {
+                // the values of the old inner list are copied by the change builder
+                final List<? extends E> oldValues = oldInnerList.getValues();
 
-            final int firstOldIndex = getFirstIndex(i);
+                final InnerList newInnerList = acquire(newValues);
 
-            // more values were removed than added
-            if (oldValues.size() > newValues.size()) {
-                for (int count = 0; count < newValues.size(); count++) {
-                    nextUpdate(firstOldIndex + count);
-                }
+                node.setValue(newInnerList);
+                innerLists.setWeight(node, newValues.size());
 
-                nextRemove(firstOldIndex, oldValues.subList(newValues.size(), oldValues.size()));
-            }
+                newInnerList.nodes.add(node);
 
-            // more values were added than removed
-            if (oldValues.size() < newValues.size()) {
-                for (int count = 0; count < oldValues.size(); count++) {
-                    nextUpdate(firstOldIndex + count);
+                if (oldValues.isEmpty()) {
+                    if (!newValues.isEmpty()) {
+                        nextAdd(expandedFrom, expandedFrom + newValues.size());
+                    }
+                } else if (newValues.isEmpty()) {
+                    nextRemove(expandedFrom, oldValues);
+                } else {
+                    nextReplace(expandedFrom, expandedFrom + newValues.size(), oldValues);
                 }
 
-                nextAdd(firstOldIndex + oldValues.size(), firstOldIndex + newValues.size());
+                removeOccurrence(oldInnerList, node);
             }
 
-            // all old values were replaces
-            if (oldValues.size() == newValues.size()) {
-                for (int count = 0; count < oldValues.size(); count++) {
-                    nextUpdate(firstOldIndex + count);
-                }
-            }
+            node = IndexedTree.next(node);
         }
     }
 
@@ -308,81 +373,216 @@ public class ConcatenatedList<E> extends TransformationListBase<E, ObservableLis
     @Override
     protected void addRemove(ListChangeListener.Change<? extends ObservableList<? extends E>> change) {
         final int from = change.getFrom();
+        final int expandedFrom = innerLists.offsetOfRank(from);
 
-        for (int removedIndex = change.getRemovedSize() - 1; removedIndex >= 0; removedIndex--) {
-            final int index = from + removedIndex;
+        final List<IndexedTree.Node<InnerList>> removedNodes = innerLists.removeRange(from,
+                from + change.getRemovedSize());
 
-            final ObservableList<? extends E> oldValues = change.getRemoved().get(removedIndex);
+        // the snapshots of the removed inner lists are concatenated in logarithmic time, while the inner lists of a
+        // snapshot-free list need to be copied
+        PersistentVector<E> removedValues = PersistentVector.empty();
+        for (IndexedTree.Node<InnerList> removed : removedNodes) {
+            final InnerList innerList = removed.getValue();
 
-            // remove the update listener form the old observable list
-            removeUpdateListener(oldValues, removedIndex);
+            removedValues = removedValues.concat(
+                    innerList.snapshot != null ? innerList.snapshot : PersistentVector.of(innerList.values));
+        }
 
-            final int firstOldIndex = getFirstIndex(index);
+        final int addedSize = change.wasAdded() ? insertInnerLists(from, change.getAddedSubList()) : 0;
 
-            nextRemove(firstOldIndex, expandedValues.remove(index));
+        // the removed occurrences are released after the insertion, which allows re-added inner lists to keep their
+        // subscription and snapshot
+        for (IndexedTree.Node<InnerList> removed : removedNodes) {
+            removeOccurrence(removed.getValue(), removed);
         }
 
-        for (int addedIndex = 0; addedIndex < change.getAddedSize(); addedIndex++) {
-            final int index = from + addedIndex;
+        if (!removedValues.isEmpty() && addedSize > 0) {
+            nextReplace(expandedFrom, expandedFrom + addedSize, removedValues);
+        } else if (!removedValues.isEmpty()) {
+            nextRemove(expandedFrom, removedValues);
+        } else if (addedSize > 0) {
+            nextAdd(expandedFrom, expandedFrom + addedSize);
+        }
+    }
 
-            final ObservableList<? extends E> newValues = change.getAddedSubList().get(addedIndex);
+    /**
+     * Gets the subscribed {@link InnerList} for the given {@link ObservableList} or subscribes to the
+     * {@link ObservableList} if it does not yet occur in this list
+     *
+     * @param values The inner list
+     * @return The subscribed {@link InnerList}
+     */
+    private InnerList acquire(ObservableList<? extends E> values) {
+        return subscriptions.computeIfAbsent(values, key -> {
+            final InnerList innerList = new InnerList(key);
 
-            expandedValues.add(index, new ArrayList<>(newValues));
+            innerList.subscribe();
 
-            // add an update listener to the new observable list
-            addUpdateListener(newValues, addedIndex);
+            return innerList;
+        });
+    }
 
-            final int lastOldIndex = getLastIndexPlusOne(index - 1);
+    /**
+     * Removes the given occurrence of the given {@link InnerList} and unsubscribes from the inner list if it was its
+     * last occurrence
+     *
+     * @param innerList The inner list
+     * @param node      The removed occurrence of the inner list
+     */
+    private void removeOccurrence(InnerList innerList, IndexedTree.Node<InnerList> node) {
+        innerList.nodes.remove(node);
+
+        if (innerList.nodes.isEmpty()) {
+            innerList.unsubscribe();
 
-            nextAdd(lastOldIndex, lastOldIndex + newValues.size());
+            subscriptions.remove(innerList.values);
         }
     }
 
     /**
-     * Adds a {@link ListChangeListener} to the given {@link ObservableList innerList}.
-     * This {@link ListChangeListener} listens to changes made to the given list.
+     * Inserts the given inner lists into the tree and subscribes to the inner lists, which do not yet occur in this
+     * list
      *
-     * @param innerList      The {@link ObservableList} to which the {@link ListChangeListener} is added
-     * @param innerListIndex The index of <code>innerList</code>
+     * @param from   The source index of the first inner list
+     * @param values The inner lists
+     * @return The summed size of the inserted inner lists
+     */
+    private int insertInnerLists(int from, List<? extends ObservableList<? extends E>> values) {
+        final List<InnerList> newInnerLists = new ArrayList<>(values.size());
+
+        int addedSize = 0;
+        for (ObservableList<? extends E> value : values) {
+            newInnerLists.add(acquire(value));
+
+            addedSize += value.size();
+        }
+
+        innerLists.insertAll(from, newInnerLists, innerList -> innerList.values.size())
+                .forEach(node -> node.getValue().nodes.add(node));
+
+        return addedSize;
+    }
+
+    /**
+     * An inner list together with its optional snapshot, the {@link ListChangeListener} listening to it and all its
+     * occurrences in the source list
      */
-    private void addUpdateListener(final ObservableList<? extends E> innerList, final int innerListIndex) {
-        final ListChangeListener<E> innerListener = (ListChangeListener.Change<? extends E> change) -> {
-            final ObservableList<? extends E> activatorList = change.getList();
+    private final class InnerList {
+        /**
+         * The inner list
+         */
+        private final ObservableList<? extends E> values;
+
+        /**
+         * An internal copy of the inner list.
+         * If the list is in snapshot-free mode this field is <code>null</code>
+         */
+        private PersistentVector<E> snapshot;
+
+        /**
+         * The {@link ListChangeListener} propagating the changes of the inner list
+         */
+        private final ListChangeListener<E> listener;
+
+        /**
+         * The {@link ListChangeListener} registered on the inner list, which is either {@link #listener} or a weak
+         * wrapper of it
+         */
+        private final ListChangeListener<E> registeredListener;
+
+        /**
+         * The nodes of all occurrences of this inner list, whose positions are the indices of the occurrences in the
+         * source list
+         */
+        private final Set<IndexedTree.Node<InnerList>> nodes;
+
+        /**
+         * Constructor
+         *
+         * @param values The inner list
+         */
+        private InnerList(ObservableList<? extends E> values) {
+            this.values = values;
+            this.snapshot = keepSnapshots ? PersistentVector.of(values) : null;
+            this.listener = this::onChanged;
+            this.registeredListener = weakListeners ? new WeakListChangeListener<>(listener) : listener;
+            this.nodes = new HashSet<>();
+        }
+
+        /**
+         * Gets the values of this inner list.
+         * The values are either taken from the internal snapshot or, in snapshot-free mode, directly from the inner list
+         *
+         * @return The values of this inner list
+         */
+        private List<? extends E> getValues() {
+            return snapshot != null ? snapshot : values;
+        }
+
+        /**
+         * Adds the {@link ListChangeListener} to the inner list
+         */
+        private void subscribe() {
+            values.addListener(registeredListener);
+        }
+
+        /**
+         * Removes the {@link ListChangeListener} from the inner list
+         */
+        private void unsubscribe() {
+            values.removeListener(registeredListener);
+        }
+
+        /**
+         * Propagates a change of the inner list to all its occurrences
+         *
+         * @param change The change of the inner list
+         */
+        private void onChanged(ListChangeListener.Change<? extends E> change) {
+            cachedSnapshot = null;
+
+            beginDeferredChange();
 
             beginChange();
-            while (change.next()) {
-                expandedValues.set(innerListIndex, new ArrayList<>(activatorList));
+            try {
+                nextInnerListChange(change, innerLists, nodes);
 
-                final int expandedFrom = getFirstIndex(innerListIndex);
+                if (snapshot != null) {
+                    change.reset();
 
-                if (change.wasPermutated()) {
-                    nextPermutation(expandedFrom + change.getFrom(), expandedFrom + change.getTo(),
-                            IntStream.range(change.getFrom(), change.getTo()).map(change::getPermutation).toArray());
-                } else if (change.wasUpdated()) {
-                    IntStream.range(expandedFrom + change.getFrom(), expandedFrom + change.getTo())
-                            .forEach(this::nextUpdate);
-                } else {
-                    nextRemove(expandedFrom + change.getFrom(), change.getRemoved());
-                    nextAdd(expandedFrom + change.getFrom(), expandedFrom + change.getFrom() + change.getAddedSize());
+                    updateSnapshot(change);
                 }
+            } finally {
+                endChange();
+
+                recyclePermutation();
             }
-            endChange();
-        };
+        }
 
-        innerListeners.add(innerListIndex, innerListener);
+        /**
+         * Applies all sub-changes of the given change of the inner list to the snapshot
+         *
+         * @param change The change of the inner list
+         */
+        private void updateSnapshot(ListChangeListener.Change<? extends E> change) {
+            while (change.next()) {
+                final int from = change.getFrom();
+                final int to = change.getTo();
 
-        innerList.addListener(innerListener);
-    }
+                if (change.wasPermutated()) {
+                    final List<E> newValues = new ArrayList<>(snapshot.slice(from, to));
 
-    /**
-     * Removes the {@link ListChangeListener} from the given {@link ObservableList innerList}
-     *
-     * @param innerList      The {@link ObservableList} from which the {@link ListChangeListener} should be removed
-     * @param innerListIndex The index of the to be removed {@link ObservableList innerList}
-     */
-    private void removeUpdateListener(final ObservableList<? extends E> innerList, final int innerListIndex) {
-        final ListChangeListener<E> innerListener = innerListeners.remove(innerListIndex);
+                    for (int i = from; i < to; i++) {
+                        newValues.set(change.getPermutation(i) - from, snapshot.get(i));
+                    }
 
-        innerList.removeListener(innerListener);
+                    // the permuted values are written in place, which only copies the nodes containing them
+                    snapshot = snapshot.withValues(from, newValues);
+                } else if (!change.wasUpdated()) {
+                    snapshot = snapshot.withRemoved(from, from + change.getRemovedSize())
+                            .withInserted(from, change.getAddedSubList());
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,296 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A read-only {@link ObservableList}, which can be modified from arbitrary threads and is meant to be used as the source
+ * list of a chain of {@link TransformationListBase} instances.
+ * <p>
+ * Producers enqueue add, set and remove operations into a lock-free queue without blocking. The operations are only
+ * applied when the queue is drained on the thread owning the list, which applies all pending operations in their
+ * enqueue order and fires them as a single {@link javafx.collections.ListChangeListener.Change}.
+ * The list can either be drained manually via {@link #drain()} or automatically by a drain scheduler, e.g.
+ * <code>Platform::runLater</code>. The drain scheduler is invoked at most once until the scheduled drain is executed,
+ * independent of the number of enqueued operations.
+ * <p>
+ * Index based operations refer to the state of the list at the time they are applied, not at the time they are
+ * enqueued
+ *
+ * @param <E> The instance type of the elements in the list
+ */
+public class ConcurrentSourceList<E> extends ObservableListBase<E> {
+    /**
+     * The values of this list, which are only accessed by the thread owning the list
+     */
+    private final List<E> values;
+
+    /**
+     * The enqueued operations, which have not been applied yet
+     */
+    private final Queue<Runnable> pendingOperations;
+
+    /**
+     * True if a drain has been scheduled, which has not been executed yet
+     */
+    private final AtomicBoolean drainScheduled;
+
+    /**
+     * The scheduler used to drain the pending operations or <code>null</code> if the list is drained manually
+     */
+    private final Executor drainScheduler;
+
+    /**
+     * Constructor
+     *
+     * @param values         The initial values
+     * @param drainScheduler The scheduler used to drain the pending operations on the thread owning the list or
+     *                       <code>null</code> if the list is drained manually
+     */
+    public ConcurrentSourceList(Collection<? extends E> values, Executor drainScheduler) {
+        super();
+
+        this.values = new ArrayList<>(values);
+        this.pendingOperations = new ConcurrentLinkedQueue<>();
+        this.drainScheduled = new AtomicBoolean();
+        this.drainScheduler = drainScheduler;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param drainScheduler The scheduler used to drain the pending operations on the thread owning the list or
+     *                       <code>null</code> if the list is drained manually
+     */
+    public ConcurrentSourceList(Executor drainScheduler) {
+        this(List.of(), drainScheduler);
+    }
+
+    /**
+     * Constructor
+     */
+    public ConcurrentSourceList() {
+        this(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E get(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Enqueues the addition of the given value to the end of this list.
+     * This method can be called from any thread
+     *
+     * @param value The added value
+     */
+    public void enqueueAdd(E value) {
+        enqueue(() -> {
+            values.add(value);
+
+            nextAdd(values.size() - 1, values.size());
+        });
+    }
+
+    /**
+     * Enqueues the addition of the given value at the given index.
+     * This method can be called from any thread
+     *
+     * @param index The index at the time the operation is applied
+     * @param value The added value
+     */
+    public void enqueueAdd(int index, E value) {
+        enqueue(() -> {
+            values.add(index, value);
+
+            nextAdd(index, index + 1);
+        });
+    }
+
+    /**
+     * Enqueues the addition of the given values to the end of this list.
+     * The values are copied when they are enqueued. This method can be called from any thread
+     *
+     * @param addedValues The added values
+     */
+    public void enqueueAddAll(Collection<? extends E> addedValues) {
+        final List<E> copy = new ArrayList<>(addedValues);
+
+        enqueue(() -> {
+            final int from = values.size();
+
+            values.addAll(copy);
+
+            if (!copy.isEmpty()) {
+                nextAdd(from, values.size());
+            }
+        });
+    }
+
+    /**
+     * Enqueues the replacement of the value at the given index.
+     * This method can be called from any thread
+     *
+     * @param index The index at the time the operation is applied
+     * @param value The new value
+     */
+    public void enqueueSet(int index, E value) {
+        enqueue(() -> nextSet(index, values.set(index, value)));
+    }
+
+    /**
+     * Enqueues the removal of the value at the given index.
+     * This method can be called from any thread
+     *
+     * @param index The index at the time the operation is applied
+     */
+    public void enqueueRemove(int index) {
+        enqueue(() -> nextRemove(index, values.remove(index)));
+    }
+
+    /**
+     * Enqueues the removal of the first occurrence of the given value.
+     * If the list does not contain the value when the operation is applied, the operation does nothing.
+     * This method can be called from any thread
+     *
+     * @param value The removed value
+     */
+    public void enqueueRemoveValue(Object value) {
+        enqueue(() -> {
+            final int index = values.indexOf(value);
+
+            if (index >= 0) {
+                nextRemove(index, values.remove(index));
+            }
+        });
+    }
+
+    /**
+     * Enqueues the replacement of all values of this list with the given values.
+     * The values are copied when they are enqueued. This method can be called from any thread
+     *
+     * @param newValues The new values
+     */
+    public void enqueueSetAll(Collection<? extends E> newValues) {
+        final List<E> copy = new ArrayList<>(newValues);
+
+        enqueue(() -> {
+            clearValues();
+
+            values.addAll(copy);
+
+            if (!copy.isEmpty()) {
+                nextAdd(0, copy.size());
+            }
+        });
+    }
+
+    /**
+     * Enqueues the removal of all values of this list.
+     * This method can be called from any thread
+     */
+    public void enqueueClear() {
+        enqueue(this::clearValues);
+    }
+
+    /**
+     * Checks whether there are enqueued operations, which have not been applied yet.
+     * This method can be called from any thread
+     *
+     * @return True if there are pending operations, false otherwise
+     */
+    public boolean hasPendingOperations() {
+        return !pendingOperations.isEmpty();
+    }
+
+    /**
+     * Applies all pending operations in their enqueue order and fires them as a single change.
+     * This method needs to be called on the thread owning the list. Operations enqueued during the drain are applied
+     * as part of the same change.
+     * If an operation fails, it is discarded, the already applied operations are fired and the remaining operations
+     * stay enqueued until the next drain, which is scheduled immediately if a drain scheduler is set
+     *
+     * @return The number of applied operations
+     */
+    public int drain() {
+        drainScheduled.set(false);
+
+        int count = 0;
+
+        beginChange();
+        try {
+            for (Runnable operation = pendingOperations.poll(); operation != null; operation = pendingOperations
+                    .poll()) {
+                operation.run();
+
+                count++;
+            }
+        } finally {
+            try {
+                endChange();
+            } finally {
+                // the remaining operations of a failed drain would otherwise wait for the next enqueued operation
+                if (!pendingOperations.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        return count;
+    }
+
+    public Executor getDrainScheduler() {
+        return drainScheduler;
+    }
+
+    /**
+     * Enqueues the given operation and schedules a drain if no drain is scheduled yet
+     *
+     * @param operation The operation
+     */
+    private void enqueue(Runnable operation) {
+        pendingOperations.offer(operation);
+
+        scheduleDrain();
+    }
+
+    /**
+     * Schedules a drain if a drain scheduler is set and no drain is scheduled yet
+     */
+    private void scheduleDrain() {
+        if (drainScheduler != null && drainScheduled.compareAndSet(false, true)) {
+            drainScheduler.execute(this::drain);
+        }
+    }
+
+    /**
+     * Removes all values of this list and records their removal in the current change
+     */
+    private void clearValues() {
+        if (!values.isEmpty()) {
+            // the removed values are copied by the change builder
+            nextRemove(0, values);
+
+            values.clear();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener.Change;
+import javafx.collections.ObservableFloatArray;
+import javafx.collections.ObservableList;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * An implementation of a mapped {@link ObservableList}, which maps the values of the source {@link ObservableList} to
+ * <code>double</code> values. The mapped values are stored in a <code>double</code> array and can be read without
+ * boxing via {@link #getDouble(int)}
+ *
+ * @param <F> The instance type of the source elements
+ */
+public class DoubleMappedList<F> extends PrimitiveMappedList<Double, F> {
+    /**
+     * The mapper function used to map the source values to <code>double</code> values
+     */
+    private final ToDoubleFunction<? super F> mapper;
+
+    /**
+     * The mapped values, only the first {@link #size()} values are valid
+     */
+    private double[] mappedValues;
+
+    /**
+     * The buffer used to narrow the mapped values before they are copied into an {@link ObservableFloatArray}
+     */
+    private float[] floatBuffer;
+
+    /**
+     * Constructor
+     *
+     * @param source The source list
+     * @param mapper The mapper function
+     */
+    public DoubleMappedList(ObservableList<? extends F> source, ToDoubleFunction<? super F> mapper) {
+        super(source);
+
+        this.mapper = mapper;
+        this.mappedValues = new double[source.size()];
+        this.floatBuffer = new float[0];
+
+        insertValues(0, source);
+
+        fireInitialisationChange();
+    }
+
+    /**
+     * Gets the mapped value at the given index without boxing it
+     *
+     * @param index The index
+     * @return The mapped value
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+
+        return mappedValues[index];
+    }
+
+    /**
+     * Copies all mapped values into a new <code>double</code> array
+     *
+     * @return A new array containing all mapped values
+     */
+    public double[] toDoubleArray() {
+        return Arrays.copyOf(mappedValues, size());
+    }
+
+    /**
+     * Creates a new {@link ObservableFloatArray}, which contains the mapped values of this list narrowed to
+     * <code>float</code> and is kept in sync with this list. After every change of this list only the changed range
+     * of the array is updated without boxing the mapped values
+     *
+     * @return A new {@link ObservableFloatArray} bound to this list
+     */
+    public ObservableFloatArray toObservableArray() {
+        final ObservableFloatArray array = FXCollections.observableFloatArray();
+
+        mirrorTo(array, (from, to) -> copyRange(array, from, to));
+
+        return array;
+    }
+
+    /**
+     * Copies the mapped values between <code>from</code> (inclusive) and <code>to</code> (exclusive) narrowed to
+     * <code>float</code> to the same indices of the given {@link ObservableFloatArray}.
+     * The values are narrowed into a buffer, which is reused by later copies
+     *
+     * @param array The target array
+     * @param from  The index of the first copied value
+     * @param to    The index after the last copied value
+     */
+    private void copyRange(ObservableFloatArray array, int from, int to) {
+        if (floatBuffer.length < to - from) {
+            floatBuffer = new float[Math.max(to - from, floatBuffer.length + (floatBuffer.length >> 1))];
+        }
+
+        for (int i = from; i < to; i++) {
+            floatBuffer[i - from] = (float) mappedValues[i];
+        }
+
+        array.set(from, floatBuffer, 0, to - from);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void release() {
+        super.release();
+
+        floatBuffer = new float[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int capacity() {
+        return mappedValues.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void resize(int capacity) {
+        mappedValues = Arrays.copyOf(mappedValues, capacity);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void move(int from, int to, int length) {
+        System.arraycopy(mappedValues, from, mappedValues, to, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void map(int index, F value) {
+        mappedValues[index] = mapper.applyAsDouble(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void reorder(int from, int to, Change<? extends F> change) {
+        final double[] permutedValues = Arrays.copyOfRange(mappedValues, from, to);
+
+        for (int i = from; i < to; i++) {
+            mappedValues[change.getPermutation(i)] = permutedValues[i - from];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Double box(int index) {
+        return mappedValues[index];
+    }
+}
@@ -0,0 +1,358 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * An implementation of a flat mapped {@link ObservableList}, which maps every value of the source
+ * {@link ObservableList} to an inner {@link ObservableList} and concatenates the values of all inner
+ * {@link ObservableList}s into a single {@link ObservableList}.
+ * <p>
+ * In contrast to a {@link ConcatenatedList} over a {@link MappedList} no intermediate lists and no copies of the inner
+ * lists are created. The list only keeps the inner lists returned by the mapper together with their sizes in a
+ * balanced tree, which allows to resolve the offset of an inner list in logarithmic time. The values are read directly
+ * from the inner lists, therefore the inner lists must not be read through this list by {@link ListChangeListener}s
+ * that are notified before this list.
+ * <p>
+ * If the mapper returns the same {@link ObservableList} instance for multiple source values, only a single listener is
+ * kept for it. A change of such an inner list is propagated to all of its occurrences at once
+ *
+ * @param <E> The instance type of the elements in the inner lists
+ * @param <F> The instance type of the elements in the source list
+ */
+public class FlatMappedList<E, F> extends TransformationListBase<E, F> {
+    /**
+     * The mapper function, which maps a source value to an inner list
+     */
+    private final Function<? super F, ? extends ObservableList<? extends E>> mapper;
+
+    /**
+     * A tree containing one node per source value, whose weight is the size of the corresponding inner list
+     */
+    private final IndexedTree<InnerList> innerLists;
+
+    /**
+     * The subscribed inner lists, identified by the identity of their {@link ObservableList}
+     */
+    private final Map<ObservableList<? extends E>, InnerList> subscriptions;
+
+    /**
+     * Constructor
+     *
+     * @param source The source list
+     * @param mapper The mapper function, which maps a source value to an inner list
+     */
+    public FlatMappedList(ObservableList<? extends F> source,
+            Function<? super F, ? extends ObservableList<? extends E>> mapper) {
+        super(source);
+
+        this.mapper = mapper;
+        this.innerLists = new IndexedTree<>();
+        this.subscriptions = new IdentityHashMap<>();
+
+        insertInnerLists(0, source);
+
+        fireInitialisationChange();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSourceIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return innerLists.rank(innerLists.findByOffset(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getViewIndex(int index) {
+        return innerLists.offsetOfRank(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final IndexedTree.Node<InnerList> node = innerLists.findByOffset(index);
+
+        return node.getValue().values.get(index - innerLists.offset(node));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return innerLists.totalWeight();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void release() {
+        subscriptions.values().forEach(InnerList::unsubscribe);
+        subscriptions.clear();
+
+        innerLists.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void permute(ListChangeListener.Change<? extends F> change) {
+        final int from = change.getFrom();
+        final int to = change.getTo();
+
+        if (to > from) {
+            final int expandedFrom = innerLists.offsetOfRank(from);
+            final int expandedTo = innerLists.offsetOfRank(to);
+
+            // every inner list is moved as a block, which keeps the order inside of the block
+            final int[] perm = borrowPermutation(expandedTo - expandedFrom);
+
+            // the listeners of the inner lists resolve their offsets through their nodes, which are all detached
+            // first, because an inner list can occur multiple times inside of the permuted range
+            IndexedTree.Node<InnerList> node = innerLists.get(from);
+            for (int i = from; i < to; i++) {
+                node.getValue().nodes.remove(node);
+
+                node = IndexedTree.next(node);
+            }
+
+            innerLists.permute(change, perm);
+
+            node = innerLists.get(from);
+            for (int i = from; i < to; i++) {
+                node.getValue().nodes.add(node);
+
+                node = IndexedTree.next(node);
+            }
+
+            if (expandedTo > expandedFrom) {
+                nextPermutation(expandedFrom, expandedTo, perm);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void update(ListChangeListener.Change<? extends F> change) {
+        final int from = change.getFrom();
+        final int to = change.getTo();
+
+        IndexedTree.Node<InnerList> node = innerLists.get(from);
+        for (int i = from; i < to; i++) {
+            final InnerList oldInnerList = node.getValue();
+            final ObservableList<? extends E> newValues = mapper.apply(getSource().get(i));
+
+            final int expandedFrom = innerLists.offset(node);
+
+            if (oldInnerList.values == newValues) {
+                // the source value is still mapped to the same inner list
+                for (int index = expandedFrom; index < expandedFrom + newValues.size(); index++) {
+                    nextUpdate(index);
+                }
+            } else {
+                final InnerList newInnerList = acquire(newValues);
+
+                node.setValue(newInnerList);
+                innerLists.setWeight(node, newValues.size());
+
+                newInnerList.nodes.add(node);
+
+                // the values of the old inner list are copied by the change builder
+                if (oldInnerList.values.isEmpty()) {
+                    if (!newValues.isEmpty()) {
+                        nextAdd(expandedFrom, expandedFrom + newValues.size());
+                    }
+                } else if (newValues.isEmpty()) {
+                    nextRemove(expandedFrom, oldInnerList.values);
+                } else {
+                    nextReplace(expandedFrom, expandedFrom + newValues.size(), oldInnerList.values);
+                }
+
+                removeOccurrence(oldInnerList, node);
+            }
+
+            node = IndexedTree.next(node);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void addRemove(ListChangeListener.Change<? extends F> change) {
+        final int from = change.getFrom();
+        final int expandedFrom = innerLists.offsetOfRank(from);
+
+        if (change.wasRemoved()) {
+            for (IndexedTree.Node<InnerList> removed : innerLists.removeRange(from, from + change.getRemovedSize())) {
+                final InnerList innerList = removed.getValue();
+
+                removeOccurrence(innerList, removed);
+
+                if (!innerList.values.isEmpty()) {
+                    // the removed values are copied by the change builder, which allows to pass the inner list itself
+                    nextRemove(expandedFrom, innerList.values);
+                }
+            }
+        }
+
+        if (change.wasAdded()) {
+            final int addedSize = insertInnerLists(from, change.getAddedSubList());
+
+            if (addedSize > 0) {
+                nextAdd(expandedFrom, expandedFrom + addedSize);
+            }
+        }
+    }
+
+    /**
+     * Gets the subscribed {@link InnerList} for the given {@link ObservableList} or subscribes to the
+     * {@link ObservableList} if it does not yet occur in this list
+     *
+     * @param values The inner list
+     * @return The subscribed {@link InnerList}
+     */
+    private InnerList acquire(ObservableList<? extends E> values) {
+        return subscriptions.computeIfAbsent(values, key -> {
+            final InnerList innerList = new InnerList(key);
+
+            innerList.subscribe();
+
+            return innerList;
+        });
+    }
+
+    /**
+     * Removes the given occurrence of the given {@link InnerList} and unsubscribes from the inner list if it was its
+     * last occurrence
+     *
+     * @param innerList The inner list
+     * @param node      The removed occurrence of the inner list
+     */
+    private void removeOccurrence(InnerList innerList, IndexedTree.Node<InnerList> node) {
+        innerList.nodes.remove(node);
+
+        if (innerList.nodes.isEmpty()) {
+            innerList.unsubscribe();
+
+            subscriptions.remove(innerList.values);
+        }
+    }
+
+    /**
+     * Maps the given source values to their inner lists, inserts the inner lists into the tree and subscribes to the
+     * inner lists, which do not yet occur in this list
+     *
+     * @param from   The source index of the first value
+     * @param values The source values
+     * @return The summed size of the inserted inner lists
+     */
+    private int insertInnerLists(int from, List<? extends F> values) {
+        final List<InnerList> newInnerLists = new ArrayList<>(values.size());
+
+        int addedSize = 0;
+        for (F value : values) {
+            final InnerList innerList = acquire(mapper.apply(value));
+
+            newInnerLists.add(innerList);
+
+            addedSize += innerList.values.size();
+        }
+
+        innerLists.insertAll(from, newInnerLists, innerList -> innerList.values.size())
+                .forEach(node -> node.getValue().nodes.add(node));
+
+        return addedSize;
+    }
+
+    /**
+     * An inner list returned by the mapper together with the {@link ListChangeListener} listening to it and all its
+     * occurrences
+     */
+    private final class InnerList {
+        /**
+         * The inner list
+         */
+        private final ObservableList<? extends E> values;
+
+        /**
+         * The {@link ListChangeListener} propagating the changes of the inner list
+         */
+        private final ListChangeListener<E> listener;
+
+        /**
+         * The nodes of all occurrences of this inner list, whose positions are the indices of the corresponding source
+         * values
+         */
+        private final Set<IndexedTree.Node<InnerList>> nodes;
+
+        /**
+         * Constructor
+         *
+         * @param values The inner list
+         */
+        private InnerList(ObservableList<? extends E> values) {
+            this.values = values;
+            this.listener = this::onChanged;
+            this.nodes = new HashSet<>();
+        }
+
+        /**
+         * Adds the {@link ListChangeListener} to the inner list
+         */
+        private void subscribe() {
+            values.addListener(listener);
+        }
+
+        /**
+         * Removes the {@link ListChangeListener} from the inner list
+         */
+        private void unsubscribe() {
+            values.removeListener(listener);
+        }
+
+        /**
+         * Propagates a change of the inner list to all its occurrences
+         *
+         * @param change The change of the inner list
+         */
+        private void onChanged(ListChangeListener.Change<? extends E> change) {
+            beginDeferredChange();
+
+            beginChange();
+            try {
+                nextInnerListChange(change, innerLists, nodes);
+            } finally {
+                endChange();
+
+                recyclePermutation();
+            }
+        }
+    }
+}
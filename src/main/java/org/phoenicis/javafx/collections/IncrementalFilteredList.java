@@ -0,0 +1,321 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener.Change;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * An implementation of a filtered {@link ObservableList}, which only contains the values of the source
+ * {@link ObservableList} matching a predicate.
+ * <p>
+ * In contrast to {@link javafx.collections.transformation.FilteredList} the mapping between the source and the view
+ * indices is stored in a balanced tree, which contains one node per source value with a weight of <code>1</code> if
+ * the value matches the predicate and <code>0</code> otherwise. This allows to translate indices and to insert, remove
+ * or update single values in logarithmic time. When the predicate is changed, only the values whose state changed are
+ * reported. If no predicate is set, i.e. the predicate is set to <code>null</code>, all source values are contained
+ *
+ * @param <E> The instance type of the elements
+ */
+public class IncrementalFilteredList<E> extends TransformationListBase<E, E> {
+    /**
+     * The predicate used to filter the source values
+     */
+    private final ObjectProperty<Predicate<? super E>> predicate;
+
+    /**
+     * A tree containing a node for every source value, whose weight is <code>1</code> if the value is visible
+     */
+    private final IndexedTree<Void> visibility;
+
+    /**
+     * The listener reacting to changes of the predicate
+     */
+    private final InvalidationListener predicateListener;
+
+    /**
+     * Constructor
+     *
+     * @param source    The source list
+     * @param predicate The predicate
+     */
+    public IncrementalFilteredList(ObservableList<? extends E> source, ObjectProperty<Predicate<? super E>> predicate) {
+        super(source);
+
+        this.predicate = predicate;
+        this.visibility = new IndexedTree<>();
+
+        insertValues(0, source);
+
+        // add a listener to detect changes of the predicate
+        this.predicateListener = observable -> refilter();
+
+        predicate.addListener(predicateListener);
+
+        // fire an initialisation event containing all visible elements
+        fireInitialisationChange();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source    The source list
+     * @param predicate The predicate
+     */
+    public IncrementalFilteredList(ObservableList<? extends E> source, Predicate<? super E> predicate) {
+        this(source, new SimpleObjectProperty<>(predicate));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source The source list
+     */
+    public IncrementalFilteredList(ObservableList<? extends E> source) {
+        this(source, new SimpleObjectProperty<>());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSourceIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return visibility.rank(visibility.findByOffset(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The index of the source value in this list or <code>-1</code> if the source value is filtered out
+     */
+    @Override
+    public int getViewIndex(int index) {
+        final IndexedTree.Node<Void> node = visibility.get(index);
+
+        return node.getWeight() == 1 ? visibility.offset(node) : -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E get(int index) {
+        return getSource().get(getSourceIndex(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return visibility.totalWeight();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void release() {
+        predicate.removeListener(predicateListener);
+
+        visibility.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void permute(Change<? extends E> change) {
+        final int from = change.getFrom();
+        final int to = change.getTo();
+
+        if (to > from) {
+            final int viewFrom = visibility.offsetOfRank(from);
+
+            // the visibility of the source values before and after the permutation
+            final int[] oldWeights = new int[to - from];
+            final int[] newWeights = new int[to - from];
+
+            IndexedTree.Node<Void> node = visibility.get(from);
+            for (int i = from; i < to; i++) {
+                oldWeights[i - from] = node.getWeight();
+                newWeights[change.getPermutation(i) - from] = node.getWeight();
+
+                node = IndexedTree.next(node);
+            }
+
+            // the view index of every source position after the permutation, relative to viewFrom
+            final int[] newOffsets = new int[to - from];
+
+            for (int i = 1; i < newOffsets.length; i++) {
+                newOffsets[i] = newOffsets[i - 1] + newWeights[i - 1];
+            }
+
+            final int viewTo = viewFrom + newOffsets[to - from - 1] + newWeights[to - from - 1];
+            final int[] perm = new int[viewTo - viewFrom];
+
+            int position = 0;
+            for (int i = from; i < to; i++) {
+                if (oldWeights[i - from] == 1) {
+                    perm[position++] = viewFrom + newOffsets[change.getPermutation(i) - from];
+                }
+            }
+
+            node = visibility.get(from);
+            for (int i = from; i < to; i++) {
+                visibility.setWeight(node, newWeights[i - from]);
+
+                node = IndexedTree.next(node);
+            }
+
+            if (viewTo > viewFrom) {
+                nextPermutation(viewFrom, viewTo, perm);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void update(Change<? extends E> change) {
+        final int from = change.getFrom();
+        final int to = change.getTo();
+
+        final Predicate<? super E> currentPredicate = getPredicate();
+
+        IndexedTree.Node<Void> node = visibility.get(from);
+        int viewIndex = visibility.offset(node);
+
+        for (int i = from; i < to; i++) {
+            final E value = getSource().get(i);
+            final int weight = currentPredicate == null || currentPredicate.test(value) ? 1 : 0;
+
+            if (node.getWeight() == 1 && weight == 1) {
+                nextUpdate(viewIndex);
+            } else if (node.getWeight() == 1) {
+                nextRemove(viewIndex, value);
+            } else if (weight == 1) {
+                nextAdd(viewIndex, viewIndex + 1);
+            }
+
+            visibility.setWeight(node, weight);
+
+            viewIndex += weight;
+            node = IndexedTree.next(node);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void addRemove(Change<? extends E> change) {
+        final int from = change.getFrom();
+        final int viewFrom = visibility.offsetOfRank(from);
+
+        if (change.wasRemoved()) {
+            final List<IndexedTree.Node<Void>> removedNodes = visibility.removeRange(from,
+                    from + change.getRemovedSize());
+            final List<E> removedValues = new ArrayList<>();
+
+            for (int i = 0; i < removedNodes.size(); i++) {
+                if (removedNodes.get(i).getWeight() == 1) {
+                    removedValues.add(change.getRemoved().get(i));
+                }
+            }
+
+            if (!removedValues.isEmpty()) {
+                nextRemove(viewFrom, removedValues);
+            }
+        }
+
+        if (change.wasAdded()) {
+            final int addedVisible = insertValues(from, change.getAddedSubList());
+
+            if (addedVisible > 0) {
+                nextAdd(viewFrom, viewFrom + addedVisible);
+            }
+        }
+    }
+
+    /**
+     * Inserts nodes for the given source values into the visibility tree
+     *
+     * @param from   The source index of the first value
+     * @param values The source values
+     * @return The number of inserted visible values
+     */
+    private int insertValues(int from, List<? extends E> values) {
+        final Predicate<? super E> currentPredicate = getPredicate();
+
+        final List<Void> placeholders = new ArrayList<>(values.size());
+        final int[] weights = new int[values.size()];
+
+        int visible = 0;
+        for (int i = 0; i < values.size(); i++) {
+            placeholders.add(null);
+
+            weights[i] = currentPredicate == null || currentPredicate.test(values.get(i)) ? 1 : 0;
+            visible += weights[i];
+        }
+
+        final int[] position = { 0 };
+
+        visibility.insertAll(from, placeholders, placeholder -> weights[position[0]++]);
+
+        return visible;
+    }
+
+    /**
+     * Evaluates the current predicate for all source values and reports the values, whose visibility changed
+     */
+    private void refilter() {
+        final Predicate<? super E> currentPredicate = getPredicate();
+
+        beginDeferredChange();
+
+        beginChange();
+
+        IndexedTree.Node<Void> node = visibility.first();
+        int viewIndex = 0;
+
+        for (E value : getSource()) {
+            final int weight = currentPredicate == null || currentPredicate.test(value) ? 1 : 0;
+
+            if (node.getWeight() == 1 && weight == 0) {
+                nextRemove(viewIndex, value);
+            } else if (node.getWeight() == 0 && weight == 1) {
+                nextAdd(viewIndex, viewIndex + 1);
+            }
+
+            visibility.setWeight(node, weight);
+
+            viewIndex += weight;
+            node = IndexedTree.next(node);
+        }
+
+        endChange();
+    }
+
+    public Predicate<? super E> getPredicate() {
+        return predicate.get();
+    }
+
+    public void setPredicate(Predicate<? super E> predicate) {
+        this.predicate.set(predicate);
+    }
+
+    public ObjectProperty<Predicate<? super E>> predicateProperty() {
+        return predicate;
+    }
+}
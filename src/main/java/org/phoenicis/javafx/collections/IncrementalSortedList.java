@@ -0,0 +1,448 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener.Change;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An implementation of a sorted {@link ObservableList}, which contains the values of the source {@link ObservableList}
+ * sorted by a comparator.
+ * <p>
+ * In contrast to {@link javafx.collections.transformation.SortedList} the values are stored in two balanced trees, one
+ * in the order of the source list and one in the sorted order, which are linked with each other. This allows to insert,
+ * remove and update single values and to translate indices in both directions in logarithmic time. The sort order is
+ * stable, i.e. equal values retain the order of the source list. A change of the comparator is reported as a single
+ * permutation. If no comparator is set, i.e. the comparator is set to <code>null</code>, the values retain the order of
+ * the source list
+ *
+ * @param <E> The instance type of the elements
+ */
+public class IncrementalSortedList<E> extends TransformationListBase<E, E> {
+    /**
+     * The comparator used to sort the source values
+     */
+    private final ObjectProperty<Comparator<? super E>> comparator;
+
+    /**
+     * A tree containing all elements in the order of the source list
+     */
+    private final IndexedTree<Element<E>> sourceOrder;
+
+    /**
+     * A tree containing all elements in the sorted order
+     */
+    private final IndexedTree<Element<E>> sortedOrder;
+
+    /**
+     * The listener reacting to changes of the comparator
+     */
+    private final InvalidationListener comparatorListener;
+
+    /**
+     * Constructor
+     *
+     * @param source     The source list
+     * @param comparator The comparator
+     */
+    public IncrementalSortedList(ObservableList<? extends E> source, ObjectProperty<Comparator<? super E>> comparator) {
+        super(source);
+
+        this.comparator = comparator;
+        this.sourceOrder = new IndexedTree<>();
+        this.sortedOrder = new IndexedTree<>();
+
+        final List<Element<E>> elements = createElements(0, source);
+
+        sortedOrder.insertAll(0, sort(elements), element -> 1)
+                .forEach(node -> node.getValue().sortedNode = node);
+
+        // add a listener to detect changes of the comparator
+        this.comparatorListener = observable -> resort();
+
+        comparator.addListener(comparatorListener);
+
+        // fire an initialisation event containing all sorted elements
+        fireInitialisationChange();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source     The source list
+     * @param comparator The comparator
+     */
+    public IncrementalSortedList(ObservableList<? extends E> source, Comparator<? super E> comparator) {
+        this(source, new SimpleObjectProperty<>(comparator));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source The source list
+     */
+    public IncrementalSortedList(ObservableList<? extends E> source) {
+        this(source, new SimpleObjectProperty<>());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSourceIndex(int index) {
+        return sourceOrder.rank(sortedOrder.get(index).getValue().sourceNode);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getViewIndex(int index) {
+        return sortedOrder.rank(sourceOrder.get(index).getValue().sortedNode);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E get(int index) {
+        return sortedOrder.get(index).getValue().value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return sortedOrder.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void release() {
+        comparator.removeListener(comparatorListener);
+
+        sourceOrder.clear();
+        sortedOrder.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void permute(Change<? extends E> change) {
+        final int from = change.getFrom();
+        final int to = change.getTo();
+
+        if (to <= from) {
+            return;
+        }
+
+        // reorder the elements inside the source tree by exchanging the values of the affected nodes
+        final List<IndexedTree.Node<Element<E>>> nodes = new ArrayList<>(to - from);
+        final List<Element<E>> elements = new ArrayList<>(to - from);
+
+        IndexedTree.Node<Element<E>> node = sourceOrder.get(from);
+        for (int i = from; i < to; i++) {
+            nodes.add(node);
+            elements.add(node.getValue());
+
+            node = IndexedTree.next(node);
+        }
+
+        for (int i = from; i < to; i++) {
+            final IndexedTree.Node<Element<E>> target = nodes.get(change.getPermutation(i) - from);
+            final Element<E> element = elements.get(i - from);
+
+            target.setValue(element);
+            element.sourceNode = target;
+        }
+
+        // the permutation only changes the sorted order of equal elements, which need to follow the new source order
+        final int[] oldRanks = new int[elements.size()];
+
+        for (int i = 0; i < elements.size(); i++) {
+            oldRanks[i] = sortedOrder.rank(elements.get(i).sortedNode);
+        }
+
+        for (Element<E> element : elements) {
+            sortedOrder.remove(element.sortedNode);
+        }
+
+        for (Element<E> element : elements) {
+            element.sortedNode = sortedOrder.insert(findSortedRank(element), element, 1);
+        }
+
+        // the affected elements occupy the same sorted positions as before
+        int viewFrom = Integer.MAX_VALUE;
+        int viewTo = Integer.MIN_VALUE;
+
+        for (int oldRank : oldRanks) {
+            viewFrom = Math.min(viewFrom, oldRank);
+            viewTo = Math.max(viewTo, oldRank + 1);
+        }
+
+        final int[] perm = new int[viewTo - viewFrom];
+        boolean moved = false;
+
+        for (int i = 0; i < perm.length; i++) {
+            perm[i] = viewFrom + i;
+        }
+
+        for (int i = 0; i < elements.size(); i++) {
+            final int newRank = sortedOrder.rank(elements.get(i).sortedNode);
+
+            perm[oldRanks[i] - viewFrom] = newRank;
+            moved |= newRank != oldRanks[i];
+        }
+
+        if (moved) {
+            nextPermutation(viewFrom, viewTo, perm);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void update(Change<? extends E> change) {
+        final int from = change.getFrom();
+        final int to = change.getTo();
+
+        IndexedTree.Node<Element<E>> node = sourceOrder.get(from);
+        for (int i = from; i < to; i++) {
+            final Element<E> element = node.getValue();
+            final int oldRank = sortedOrder.rank(element.sortedNode);
+
+            element.value = getSource().get(i);
+
+            sortedOrder.remove(element.sortedNode);
+
+            final int newRank = findSortedRank(element);
+
+            element.sortedNode = sortedOrder.insert(newRank, element, 1);
+
+            if (newRank == oldRank) {
+                nextUpdate(newRank);
+            } else {
+                nextRemove(oldRank, element.value);
+                nextAdd(newRank, newRank + 1);
+            }
+
+            node = IndexedTree.next(node);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void addRemove(Change<? extends E> change) {
+        final int from = change.getFrom();
+
+        if (change.wasRemoved()) {
+            for (IndexedTree.Node<Element<E>> removed : sourceOrder.removeRange(from,
+                    from + change.getRemovedSize())) {
+                final Element<E> element = removed.getValue();
+                final int rank = sortedOrder.rank(element.sortedNode);
+
+                sortedOrder.remove(element.sortedNode);
+
+                nextRemove(rank, element.value);
+            }
+        }
+
+        if (change.wasAdded()) {
+            for (Element<E> element : createElements(from, change.getAddedSubList())) {
+                final int rank = findSortedRank(element);
+
+                element.sortedNode = sortedOrder.insert(rank, element, 1);
+
+                nextAdd(rank, rank + 1);
+            }
+        }
+    }
+
+    /**
+     * Creates new elements for the given source values and inserts them into the source tree
+     *
+     * @param from   The source index of the first value
+     * @param values The source values
+     * @return The new elements in the order of the source values
+     */
+    private List<Element<E>> createElements(int from, List<? extends E> values) {
+        final List<Element<E>> elements = new ArrayList<>(values.size());
+
+        for (E value : values) {
+            elements.add(new Element<>(value));
+        }
+
+        sourceOrder.insertAll(from, elements, element -> 1)
+                .forEach(node -> node.getValue().sourceNode = node);
+
+        return elements;
+    }
+
+    /**
+     * Finds the position in the sorted tree at which the given <code>element</code> needs to be inserted.
+     * The element needs to be contained in the source tree, but not in the sorted tree
+     *
+     * @param element The element
+     * @return The sorted position of the element
+     */
+    private int findSortedRank(Element<E> element) {
+        IndexedTree.Node<Element<E>> node = sortedOrder.getRoot();
+        IndexedTree.Node<Element<E>> parent = null;
+        boolean right = false;
+
+        while (node != null) {
+            parent = node;
+            right = compare(element, node.getValue()) > 0;
+
+            node = right ? node.getRight() : node.getLeft();
+        }
+
+        if (parent == null) {
+            return 0;
+        }
+
+        return sortedOrder.rank(parent) + (right ? 1 : 0);
+    }
+
+    /**
+     * Compares two different elements using the current comparator.
+     * Equal values are ordered by their position in the source list
+     *
+     * @param first  The first element
+     * @param second The second element
+     * @return A negative number if the first element is sorted before the second element and a positive number
+     *         otherwise
+     */
+    private int compare(Element<E> first, Element<E> second) {
+        final Comparator<? super E> currentComparator = getComparator();
+
+        if (currentComparator != null) {
+            final int result = currentComparator.compare(first.value, second.value);
+
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        return Integer.compare(sourceOrder.rank(first.sourceNode), sourceOrder.rank(second.sourceNode));
+    }
+
+    /**
+     * Sorts the given elements, which need to be in the order of the source list, using the current comparator
+     *
+     * @param elements The elements in the order of the source list
+     * @return A new list containing the sorted elements
+     */
+    private List<Element<E>> sort(List<Element<E>> elements) {
+        final List<Element<E>> sorted = new ArrayList<>(elements);
+        final Comparator<? super E> currentComparator = getComparator();
+
+        // List.sort is stable, which keeps equal elements in the order of the source list
+        if (currentComparator != null) {
+            sorted.sort((first, second) -> currentComparator.compare(first.value, second.value));
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Sorts all elements using the current comparator and reports the new order as a single permutation
+     */
+    private void resort() {
+        beginDeferredChange();
+
+        final List<Element<E>> elements = new ArrayList<>(size());
+        final int[] oldRanks = new int[size()];
+
+        for (IndexedTree.Node<Element<E>> node = sourceOrder.first(); node != null; node = IndexedTree.next(node)) {
+            oldRanks[elements.size()] = sortedOrder.rank(node.getValue().sortedNode);
+            elements.add(node.getValue());
+        }
+
+        // remember the source position of every element to find its old sorted position after sorting
+        for (int i = 0; i < elements.size(); i++) {
+            elements.get(i).position = i;
+        }
+
+        final List<Element<E>> sorted = sort(elements);
+        final int[] perm = new int[sorted.size()];
+        boolean moved = false;
+
+        for (int i = 0; i < sorted.size(); i++) {
+            final int oldRank = oldRanks[sorted.get(i).position];
+
+            perm[oldRank] = i;
+            moved |= oldRank != i;
+        }
+
+        sortedOrder.clear();
+        sortedOrder.insertAll(0, sorted, element -> 1)
+                .forEach(node -> node.getValue().sortedNode = node);
+
+        if (moved) {
+            beginChange();
+            nextPermutation(0, perm.length, perm);
+            endChange();
+        }
+    }
+
+    public Comparator<? super E> getComparator() {
+        return comparator.get();
+    }
+
+    public void setComparator(Comparator<? super E> comparator) {
+        this.comparator.set(comparator);
+    }
+
+    public ObjectProperty<Comparator<? super E>> comparatorProperty() {
+        return comparator;
+    }
+
+    /**
+     * A source value, which is linked with its nodes in the source tree and the sorted tree
+     *
+     * @param <E> The instance type of the value
+     */
+    private static final class Element<E> {
+        /**
+         * The current source value
+         */
+        private E value;
+
+        /**
+         * The node of this element in the source tree
+         */
+        private IndexedTree.Node<Element<E>> sourceNode;
+
+        /**
+         * The node of this element in the sorted tree
+         */
+        private IndexedTree.Node<Element<E>> sortedNode;
+
+        /**
+         * A temporary source position used while resorting
+         */
+        private int position;
+
+        /**
+         * Constructor
+         *
+         * @param value The source value
+         */
+        private Element(E value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,760 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.collections.ListChangeListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * A balanced binary tree storing a sequence of nodes, where every node carries a value and a non-negative weight.
+ * The tree is implemented as an implicit treap, i.e. the position of a node inside the sequence is only defined by the
+ * structure of the tree.
+ * <p>
+ * Every node is a stable handle: its position (rank) and the sum of the weights of all nodes before it (offset) can be
+ * resolved in logarithmic time, while nodes can be inserted and removed at arbitrary positions in logarithmic time
+ *
+ * @param <T> The type of the values stored in the nodes
+ */
+final class IndexedTree<T> {
+    /**
+     * A node of an {@link IndexedTree}
+     *
+     * @param <T> The type of the value stored in the node
+     */
+    static final class Node<T> {
+        /**
+         * The heap priority of this node
+         */
+        private final int priority;
+
+        /**
+         * The value of this node
+         */
+        private T value;
+
+        /**
+         * The weight of this node
+         */
+        private int weight;
+
+        /**
+         * The number of nodes in the subtree of this node
+         */
+        private int count;
+
+        /**
+         * The sum of all weights in the subtree of this node
+         */
+        private int totalWeight;
+
+        private Node<T> left;
+
+        private Node<T> right;
+
+        private Node<T> parent;
+
+        /**
+         * Constructor
+         *
+         * @param value    The value of the node
+         * @param weight   The weight of the node
+         * @param priority The heap priority of the node
+         */
+        private Node(T value, int weight, int priority) {
+            this.value = value;
+            this.weight = weight;
+            this.priority = priority;
+            this.count = 1;
+            this.totalWeight = weight;
+        }
+
+        T getValue() {
+            return value;
+        }
+
+        void setValue(T value) {
+            this.value = value;
+        }
+
+        int getWeight() {
+            return weight;
+        }
+
+        Node<T> getLeft() {
+            return left;
+        }
+
+        Node<T> getRight() {
+            return right;
+        }
+    }
+
+    /**
+     * The root of this tree or <code>null</code> if the tree is empty
+     */
+    private Node<T> root;
+
+    /**
+     * The state of the pseudo random generator used for the node priorities
+     */
+    private int seed = 0x2545F491;
+
+    /**
+     * The left result of the last {@link #split(Node, int)} call
+     */
+    private Node<T> splitLeft;
+
+    /**
+     * The right result of the last {@link #split(Node, int)} call
+     */
+    private Node<T> splitRight;
+
+    /**
+     * A buffer reused by {@link #permute(ListChangeListener.Change, int[])}, which holds the permuted nodes
+     */
+    private Node<T>[] permutedNodes;
+
+    /**
+     * A buffer reused by {@link #permute(ListChangeListener.Change, int[])}, which holds the new offsets of the
+     * permuted values
+     */
+    private int[] permutedOffsets;
+
+    /**
+     * Gets the number of nodes in this tree
+     *
+     * @return The number of nodes
+     */
+    int size() {
+        return count(root);
+    }
+
+    /**
+     * Gets the sum of the weights of all nodes in this tree
+     *
+     * @return The total weight
+     */
+    int totalWeight() {
+        return totalWeight(root);
+    }
+
+    /**
+     * Gets the root node of this tree
+     *
+     * @return The root node or <code>null</code> if the tree is empty
+     */
+    Node<T> getRoot() {
+        return root;
+    }
+
+    /**
+     * Gets the node at the given <code>rank</code>
+     *
+     * @param rank The position of the node
+     * @return The node at the given position
+     */
+    Node<T> get(int rank) {
+        if (rank < 0 || rank >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        Node<T> node = root;
+        int remaining = rank;
+
+        while (true) {
+            final int leftCount = count(node.left);
+
+            if (remaining < leftCount) {
+                node = node.left;
+            } else if (remaining == leftCount) {
+                return node;
+            } else {
+                remaining -= leftCount + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Finds the node containing the given weight <code>offset</code>, i.e. the node for which
+     * <code>offset(node) &lt;= offset &lt; offset(node) + node.getWeight()</code> holds.
+     * Nodes with a weight of <code>0</code> never contain an offset
+     *
+     * @param offset The weight offset, which needs to be between <code>0</code> and {@link #totalWeight()}
+     * @return The node containing the offset
+     */
+    Node<T> findByOffset(int offset) {
+        if (offset < 0 || offset >= totalWeight()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        Node<T> node = root;
+        int remaining = offset;
+
+        while (true) {
+            final int leftWeight = totalWeight(node.left);
+
+            if (remaining < leftWeight) {
+                node = node.left;
+            } else if (remaining < leftWeight + node.weight) {
+                return node;
+            } else {
+                remaining -= leftWeight + node.weight;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Calculates the position of the given <code>node</code>
+     *
+     * @param node The node, which needs to be contained in this tree
+     * @return The position of the node
+     */
+    int rank(Node<T> node) {
+        int rank = count(node.left);
+
+        for (Node<T> current = node; current.parent != null; current = current.parent) {
+            if (current == current.parent.right) {
+                rank += count(current.parent.left) + 1;
+            }
+        }
+
+        return rank;
+    }
+
+    /**
+     * Calculates the sum of the weights of all nodes before the given <code>node</code>
+     *
+     * @param node The node, which needs to be contained in this tree
+     * @return The weight offset of the node
+     */
+    int offset(Node<T> node) {
+        int offset = totalWeight(node.left);
+
+        for (Node<T> current = node; current.parent != null; current = current.parent) {
+            if (current == current.parent.right) {
+                offset += totalWeight(current.parent.left) + current.parent.weight;
+            }
+        }
+
+        return offset;
+    }
+
+    /**
+     * Calculates the sum of the weights of the first <code>rank</code> nodes
+     *
+     * @param rank The number of nodes
+     * @return The sum of the weights of the first <code>rank</code> nodes
+     */
+    int offsetOfRank(int rank) {
+        if (rank < 0 || rank > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        Node<T> node = root;
+        int remaining = rank;
+        int offset = 0;
+
+        while (node != null) {
+            final int leftCount = count(node.left);
+
+            if (remaining <= leftCount) {
+                node = node.left;
+            } else {
+                remaining -= leftCount + 1;
+                offset += totalWeight(node.left) + node.weight;
+                node = node.right;
+            }
+        }
+
+        return offset;
+    }
+
+    /**
+     * Changes the weight of the given <code>node</code>
+     *
+     * @param node   The node, which needs to be contained in this tree
+     * @param weight The new weight
+     */
+    void setWeight(Node<T> node, int weight) {
+        final int delta = weight - node.weight;
+
+        if (delta != 0) {
+            node.weight = weight;
+
+            for (Node<T> current = node; current != null; current = current.parent) {
+                current.totalWeight += delta;
+            }
+        }
+    }
+
+    /**
+     * Moves the values of the nodes between the <code>from</code> (inclusive) and the <code>to</code> (exclusive) index
+     * of the given permutation change. Every value is moved together with its weight to the node at its new rank, while
+     * the nodes themselves stay at their positions.
+     * The optional array receives the permutation of the offsets, i.e. every value is treated as a block of offsets,
+     * whose order is kept inside of the block. Apart from growing its internal buffers, this method does not allocate
+     *
+     * @param change The permutation change, whose indices are the ranks of the nodes
+     * @param perm   The array receiving the new offset for every offset between the offsets of <code>from</code> and
+     *               <code>to</code>, which needs to have the length of this range, or <code>null</code>
+     */
+    void permute(ListChangeListener.Change<?> change, int[] perm) {
+        final int from = change.getFrom();
+        final int to = change.getTo();
+        final int length = to - from;
+
+        if (permutedNodes == null || permutedNodes.length < length) {
+            @SuppressWarnings("unchecked")
+            final Node<T>[] newPermutedNodes = (Node<T>[]) new Node<?>[length];
+
+            permutedNodes = newPermutedNodes;
+            permutedOffsets = new int[length];
+        }
+
+        final Node<T>[] nodes = permutedNodes;
+        final int[] offsets = permutedOffsets;
+
+        // the weights of the permuted values at their new ranks
+        Node<T> node = get(from);
+        for (int i = 0; i < length; i++) {
+            nodes[i] = node;
+            offsets[change.getPermutation(from + i) - from] = node.weight;
+
+            node = next(node);
+        }
+
+        if (perm != null) {
+            // the offsets of the permuted values after the permutation
+            int offset = offsetOfRank(from);
+            for (int i = 0; i < length; i++) {
+                final int weight = offsets[i];
+
+                offsets[i] = offset;
+                offset += weight;
+            }
+
+            int position = 0;
+            for (int i = 0; i < length; i++) {
+                final int newFirstOffset = offsets[change.getPermutation(from + i) - from];
+
+                for (int count = 0; count < nodes[i].weight; count++) {
+                    perm[position++] = newFirstOffset + count;
+                }
+            }
+        }
+
+        // the values are moved along the cycles of the permutation, the moved nodes are marked with a negative offset
+        for (int i = 0; i < length; i++) {
+            if (offsets[i] >= 0) {
+                T value = nodes[i].value;
+                int weight = nodes[i].weight;
+
+                int target = change.getPermutation(from + i) - from;
+                while (target != i) {
+                    final T targetValue = nodes[target].value;
+                    final int targetWeight = nodes[target].weight;
+
+                    nodes[target].value = value;
+                    setWeight(nodes[target], weight);
+                    offsets[target] = -1;
+
+                    value = targetValue;
+                    weight = targetWeight;
+
+                    target = change.getPermutation(from + target) - from;
+                }
+
+                nodes[i].value = value;
+                setWeight(nodes[i], weight);
+                offsets[i] = -1;
+            }
+        }
+
+        // the buffer must not keep the nodes alive
+        Arrays.fill(nodes, 0, length, null);
+    }
+
+    /**
+     * Inserts a new node at the given <code>rank</code>
+     *
+     * @param rank   The position of the new node
+     * @param value  The value of the new node
+     * @param weight The weight of the new node
+     * @return The new node
+     */
+    Node<T> insert(int rank, T value, int weight) {
+        if (rank < 0 || rank > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final Node<T> node = new Node<>(value, weight, nextPriority());
+
+        split(root, rank);
+
+        final Node<T> left = splitLeft;
+        final Node<T> right = splitRight;
+
+        root = detach(merge(merge(detach(left), node), detach(right)));
+
+        return node;
+    }
+
+    /**
+     * Inserts new nodes for all given <code>values</code> starting at the given <code>rank</code>.
+     * This operation takes linear time in the number of inserted values and logarithmic time in the size of the tree
+     *
+     * @param rank    The position of the first new node
+     * @param values  The values of the new nodes
+     * @param weights A function calculating the weight of a value
+     * @return The new nodes in the order of the values
+     */
+    List<Node<T>> insertAll(int rank, List<? extends T> values, ToIntFunction<? super T> weights) {
+        if (rank < 0 || rank > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final List<Node<T>> nodes = new ArrayList<>(values.size());
+
+        for (T value : values) {
+            nodes.add(new Node<>(value, weights.applyAsInt(value), nextPriority()));
+        }
+
+        final Node<T> inserted = build(nodes);
+
+        split(root, rank);
+
+        final Node<T> left = splitLeft;
+        final Node<T> right = splitRight;
+
+        root = detach(merge(merge(detach(left), inserted), detach(right)));
+
+        return nodes;
+    }
+
+    /**
+     * Removes the given <code>node</code> from this tree
+     *
+     * @param node The node, which needs to be contained in this tree
+     */
+    void remove(Node<T> node) {
+        final Node<T> parent = node.parent;
+        final Node<T> replacement = merge(detach(node.left), detach(node.right));
+
+        if (replacement != null) {
+            replacement.parent = parent;
+        }
+
+        if (parent == null) {
+            root = replacement;
+        } else {
+            if (parent.left == node) {
+                parent.left = replacement;
+            } else {
+                parent.right = replacement;
+            }
+
+            for (Node<T> current = parent; current != null; current = current.parent) {
+                update(current);
+            }
+        }
+
+        node.left = null;
+        node.right = null;
+        node.parent = null;
+        node.count = 1;
+        node.totalWeight = node.weight;
+    }
+
+    /**
+     * Removes all nodes with a position between <code>from</code> (inclusive) and <code>to</code> (exclusive)
+     *
+     * @param from The position of the first removed node
+     * @param to   The position after the last removed node
+     * @return The removed nodes in their order
+     */
+    List<Node<T>> removeRange(int from, int to) {
+        if (from < 0 || to > size() || from > to) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        split(root, to);
+
+        final Node<T> right = splitRight;
+
+        split(splitLeft, from);
+
+        final Node<T> left = splitLeft;
+        final Node<T> removed = splitRight;
+
+        root = detach(merge(detach(left), detach(right)));
+
+        final List<Node<T>> nodes = new ArrayList<>(to - from);
+
+        collect(detach(removed), nodes);
+
+        return nodes;
+    }
+
+    /**
+     * Removes all nodes from this tree
+     */
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * Gets the first node of this tree
+     *
+     * @return The first node or <code>null</code> if the tree is empty
+     */
+    Node<T> first() {
+        Node<T> node = root;
+
+        if (node != null) {
+            while (node.left != null) {
+                node = node.left;
+            }
+        }
+
+        return node;
+    }
+
+    /**
+     * Gets the successor of the given <code>node</code>
+     *
+     * @param node The node, which needs to be contained in this tree
+     * @return The successor of the node or <code>null</code> if the node is the last node
+     */
+    static <T> Node<T> next(Node<T> node) {
+        Node<T> current = node;
+
+        if (current.right != null) {
+            current = current.right;
+
+            while (current.left != null) {
+                current = current.left;
+            }
+
+            return current;
+        }
+
+        while (current.parent != null && current == current.parent.right) {
+            current = current.parent;
+        }
+
+        return current.parent;
+    }
+
+    /**
+     * Splits the subtree of the given <code>node</code> into the first <code>rank</code> nodes, which are stored in
+     * {@link #splitLeft}, and the remaining nodes, which are stored in {@link #splitRight}
+     *
+     * @param node The root of the split subtree
+     * @param rank The number of nodes in the left result
+     */
+    private void split(Node<T> node, int rank) {
+        if (node == null) {
+            splitLeft = null;
+            splitRight = null;
+
+            return;
+        }
+
+        final int leftCount = count(node.left);
+
+        if (rank <= leftCount) {
+            split(node.left, rank);
+
+            node.left = splitRight;
+
+            if (splitRight != null) {
+                splitRight.parent = node;
+            }
+
+            update(node);
+
+            splitRight = node;
+        } else {
+            split(node.right, rank - leftCount - 1);
+
+            node.right = splitLeft;
+
+            if (splitLeft != null) {
+                splitLeft.parent = node;
+            }
+
+            update(node);
+
+            splitLeft = node;
+        }
+    }
+
+    /**
+     * Merges the two given subtrees, where all nodes of <code>left</code> are positioned before all nodes of
+     * <code>right</code>
+     *
+     * @param left  The root of the left subtree
+     * @param right The root of the right subtree
+     * @return The root of the merged subtree
+     */
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.right.parent = left;
+
+            update(left);
+
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            right.left.parent = right;
+
+            update(right);
+
+            return right;
+        }
+    }
+
+    /**
+     * Builds a treap from the given unlinked nodes in linear time
+     *
+     * @param nodes The nodes in their order
+     * @return The root of the new treap
+     */
+    private Node<T> build(List<Node<T>> nodes) {
+        if (nodes.isEmpty()) {
+            return null;
+        }
+
+        // build the cartesian tree of the priorities with a stack of the rightmost path
+        final List<Node<T>> stack = new ArrayList<>();
+
+        for (Node<T> node : nodes) {
+            Node<T> last = null;
+
+            while (!stack.isEmpty() && stack.get(stack.size() - 1).priority < node.priority) {
+                last = stack.remove(stack.size() - 1);
+            }
+
+            node.left = last;
+
+            if (last != null) {
+                last.parent = node;
+            }
+
+            if (!stack.isEmpty()) {
+                final Node<T> top = stack.get(stack.size() - 1);
+
+                top.right = node;
+                node.parent = top;
+            }
+
+            stack.add(node);
+        }
+
+        final Node<T> buildRoot = stack.get(0);
+
+        updateSubtree(buildRoot);
+
+        return detach(buildRoot);
+    }
+
+    /**
+     * Recalculates the aggregated values of all nodes in the subtree of the given <code>node</code>
+     *
+     * @param node The root of the subtree
+     */
+    private void updateSubtree(Node<T> node) {
+        if (node.left != null) {
+            updateSubtree(node.left);
+        }
+
+        if (node.right != null) {
+            updateSubtree(node.right);
+        }
+
+        update(node);
+    }
+
+    /**
+     * Adds all nodes in the subtree of the given <code>node</code> to the given list, in their order
+     *
+     * @param node  The root of the subtree
+     * @param nodes The list receiving the nodes
+     */
+    private void collect(Node<T> node, List<Node<T>> nodes) {
+        if (node != null) {
+            collect(node.left, nodes);
+
+            final Node<T> right = node.right;
+
+            nodes.add(node);
+
+            node.left = null;
+            node.right = null;
+            node.parent = null;
+            node.count = 1;
+            node.totalWeight = node.weight;
+
+            collect(right, nodes);
+        }
+    }
+
+    /**
+     * Recalculates the aggregated values of the given <code>node</code> from its children
+     *
+     * @param node The node
+     */
+    private static <T> void update(Node<T> node) {
+        node.count = 1 + count(node.left) + count(node.right);
+        node.totalWeight = node.weight + totalWeight(node.left) + totalWeight(node.right);
+    }
+
+    /**
+     * Removes the parent link of the given subtree root
+     *
+     * @param node The subtree root
+     * @return The given node
+     */
+    private static <T> Node<T> detach(Node<T> node) {
+        if (node != null) {
+            node.parent = null;
+        }
+
+        return node;
+    }
+
+    private static int count(Node<?> node) {
+        return node == null ? 0 : node.count;
+    }
+
+    private static int totalWeight(Node<?> node) {
+        return node == null ? 0 : node.totalWeight;
+    }
+
+    /**
+     * Generates the next pseudo random priority
+     *
+     * @return The next priority
+     */
+    private int nextPriority() {
+        // xorshift32
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+
+        return seed;
+    }
+}
@@ -0,0 +1,133 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener.Change;
+import javafx.collections.ObservableIntegerArray;
+import javafx.collections.ObservableList;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * An implementation of a mapped {@link ObservableList}, which maps the values of the source {@link ObservableList} to
+ * <code>int</code> values. The mapped values are stored in an <code>int</code> array and can be read without boxing
+ * via {@link #getInt(int)}
+ *
+ * @param <F> The instance type of the source elements
+ */
+public class IntMappedList<F> extends PrimitiveMappedList<Integer, F> {
+    /**
+     * The mapper function used to map the source values to <code>int</code> values
+     */
+    private final ToIntFunction<? super F> mapper;
+
+    /**
+     * The mapped values, only the first {@link #size()} values are valid
+     */
+    private int[] mappedValues;
+
+    /**
+     * Constructor
+     *
+     * @param source The source list
+     * @param mapper The mapper function
+     */
+    public IntMappedList(ObservableList<? extends F> source, ToIntFunction<? super F> mapper) {
+        super(source);
+
+        this.mapper = mapper;
+        this.mappedValues = new int[source.size()];
+
+        insertValues(0, source);
+
+        fireInitialisationChange();
+    }
+
+    /**
+     * Gets the mapped value at the given index without boxing it
+     *
+     * @param index The index
+     * @return The mapped value
+     */
+    public int getInt(int index) {
+        checkIndex(index);
+
+        return mappedValues[index];
+    }
+
+    /**
+     * Copies all mapped values into a new <code>int</code> array
+     *
+     * @return A new array containing all mapped values
+     */
+    public int[] toIntArray() {
+        return Arrays.copyOf(mappedValues, size());
+    }
+
+    /**
+     * Creates a new {@link ObservableIntegerArray}, which contains the mapped values of this list and is kept in sync
+     * with this list. After every change of this list only the changed range of the array is updated without boxing
+     * the mapped values
+     *
+     * @return A new {@link ObservableIntegerArray} bound to this list
+     */
+    public ObservableIntegerArray toObservableArray() {
+        final ObservableIntegerArray array = FXCollections.observableIntegerArray();
+
+        mirrorTo(array, (from, to) -> array.set(from, mappedValues, from, to - from));
+
+        return array;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int capacity() {
+        return mappedValues.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void resize(int capacity) {
+        mappedValues = Arrays.copyOf(mappedValues, capacity);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void move(int from, int to, int length) {
+        System.arraycopy(mappedValues, from, mappedValues, to, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void map(int index, F value) {
+        mappedValues[index] = mapper.applyAsInt(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void reorder(int from, int to, Change<? extends F> change) {
+        final int[] permutedValues = Arrays.copyOfRange(mappedValues, from, to);
+
+        for (int i = from; i < to; i++) {
+            mappedValues[change.getPermutation(i)] = permutedValues[i - from];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Integer box(int index) {
+        return mappedValues[index];
+    }
+}
@@ -0,0 +1,360 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.collections.ListChangeListener.Change;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * A lazy implementation of a mapped {@link ObservableList}, which maps the values of the source {@link ObservableList}
+ * into values of the target type {@link E} when they are first accessed.
+ * <p>
+ * In contrast to {@link MappedList} the mapped values are only memoized in a bounded cache, whose eviction is defined
+ * by a {@link CachePolicy}. Values, which have been evicted, are mapped again on their next access.
+ * <p>
+ * Removed values, which are not cached, are mapped again to report them to the listeners of this list, because the
+ * change builder of JavaFX copies all removed values when a removal is reported. Therefore removing <code>n</code>
+ * uncached values, e.g. by calling <code>clear()</code> or <code>setAll(...)</code> on the source list, calls the
+ * mapper <code>n</code> times. If large source lists are replaced frequently, a cheap mapper or a large cache should be
+ * used
+ *
+ * @param <E> The instance type of the target elements
+ * @param <F> The instance type of the source elements
+ */
+public class LazyMappedList<E, F> extends TransformationListBase<E, F> {
+    /**
+     * The default number of cached values
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * A placeholder used to cache <code>null</code> values
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    /**
+     * The mapper function used to map the source values to the target type {@link E}
+     */
+    private final Function<? super F, ? extends E> mapper;
+
+    /**
+     * The policy deciding how the mapped values are cached
+     */
+    private final CachePolicy cachePolicy;
+
+    /**
+     * The cache entries in least recently used order
+     */
+    private final Map<CacheEntry, CacheEntry> cache;
+
+    /**
+     * The cache entries by their index, which allows to only move the entries affected by a change
+     */
+    private final NavigableMap<Integer, CacheEntry> cacheIndex;
+
+    /**
+     * Constructor
+     *
+     * @param source      The source list
+     * @param mapper      The mapper function
+     * @param cachePolicy The policy deciding how the mapped values are cached
+     */
+    public LazyMappedList(ObservableList<? extends F> source, Function<? super F, ? extends E> mapper,
+            CachePolicy cachePolicy) {
+        super(source);
+
+        this.mapper = mapper;
+        this.cachePolicy = cachePolicy;
+        this.cacheIndex = new TreeMap<>();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheEntry, CacheEntry> eldest) {
+                if (cachePolicy.isExceeded(size())) {
+                    cacheIndex.remove(eldest.getKey().index);
+
+                    return true;
+                }
+
+                return false;
+            }
+        };
+
+        // fire an initialisation event containing all elements, without mapping them
+        fireInitialisationChange();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source The source list
+     * @param mapper The mapper function
+     */
+    public LazyMappedList(ObservableList<? extends F> source, Function<? super F, ? extends E> mapper) {
+        this(source, mapper, CachePolicy.leastRecentlyUsed(DEFAULT_CAPACITY));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSourceIndex(int index) {
+        if (index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getViewIndex(int index) {
+        if (index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the value at the given index is not cached, it is mapped and stored in the cache
+     */
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final Object cached = loadCached(index);
+
+        if (cached != null) {
+            return unmask(cached);
+        }
+
+        final E value = mapper.apply(getSource().get(index));
+        final CacheEntry entry = new CacheEntry(index, cachePolicy.store(value != null ? value : NULL_VALUE));
+
+        cacheIndex.put(index, entry);
+        cache.put(entry, entry);
+
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The size of this list equals the size of the source list, unless the list has been disposed
+     */
+    @Override
+    public int size() {
+        return isDisposed() ? 0 : getSource().size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void release() {
+        cache.clear();
+        cacheIndex.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void permute(Change<? extends F> change) {
+        final int from = change.getFrom();
+        final int to = change.getTo();
+
+        if (to > from) {
+            final int[] perm = new int[to - from];
+
+            for (int i = from; i < to; ++i) {
+                perm[i - from] = change.getPermutation(i);
+            }
+
+            // only the cached values inside of the permuted range are moved
+            final NavigableMap<Integer, CacheEntry> permutedEntries = cacheIndex.subMap(from, true, to, false);
+            final List<CacheEntry> movedEntries = new ArrayList<>(permutedEntries.values());
+
+            permutedEntries.clear();
+
+            for (CacheEntry entry : movedEntries) {
+                entry.index = perm[entry.index - from];
+
+                cacheIndex.put(entry.index, entry);
+            }
+
+            nextPermutation(from, to, perm);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void update(Change<? extends F> change) {
+        for (int i = change.getFrom(); i < change.getTo(); ++i) {
+            // the value is mapped again on its next access
+            removeCached(i);
+
+            nextUpdate(i);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void addRemove(Change<? extends F> change) {
+        final int from = change.getFrom();
+        final int removedSize = change.getRemovedSize();
+        final int addedSize = change.getAddedSize();
+
+        if (change.wasRemoved()) {
+            // the change builder copies all removed values, therefore the removed values, which are not cached, need
+            // to be mapped
+            final List<E> removedValues = new ArrayList<>(removedSize);
+
+            for (int i = 0; i < removedSize; i++) {
+                final Object cached = loadCached(from + i);
+
+                removedValues.add(cached != null ? unmask(cached) : mapper.apply(change.getRemoved().get(i)));
+            }
+
+            nextRemove(from, removedValues);
+        }
+
+        shiftCache(from, removedSize, addedSize);
+
+        if (change.wasAdded()) {
+            nextAdd(from, from + addedSize);
+        }
+    }
+
+    /**
+     * Loads the cached value at the given <code>index</code>
+     *
+     * @param index The index of the value
+     * @return The cached value, which may be a placeholder for <code>null</code>, or <code>null</code> if the value
+     *         is not cached
+     */
+    private Object loadCached(int index) {
+        final CacheEntry entry = cacheIndex.get(index);
+
+        if (entry == null) {
+            return null;
+        }
+
+        // mark the entry as recently used
+        cache.get(entry);
+
+        final Object value = cachePolicy.load(entry.stored);
+
+        if (value == null) {
+            // the value has been reclaimed -> remove its entry
+            removeCached(index);
+        }
+
+        return value;
+    }
+
+    /**
+     * Removes the cached value at the given <code>index</code>, if it exists
+     *
+     * @param index The index of the value
+     */
+    private void removeCached(int index) {
+        final CacheEntry entry = cacheIndex.remove(index);
+
+        if (entry != null) {
+            cache.remove(entry);
+        }
+    }
+
+    /**
+     * Replaces the placeholder for <code>null</code> values with <code>null</code>
+     *
+     * @param cached The cached value
+     * @return The value
+     */
+    @SuppressWarnings("unchecked")
+    private E unmask(Object cached) {
+        return cached == NULL_VALUE ? null : (E) cached;
+    }
+
+    /**
+     * Removes the cached values of removed source values and moves the cached values after them to their new indices,
+     * while keeping their least recently used order. The cached values before <code>from</code> are not touched
+     *
+     * @param from        The index of the first removed or added value
+     * @param removedSize The number of removed values
+     * @param addedSize   The number of added values
+     */
+    private void shiftCache(int from, int removedSize, int addedSize) {
+        final int shift = addedSize - removedSize;
+
+        // if the size does not change, only the replaced values need to be removed
+        final NavigableMap<Integer, CacheEntry> affectedEntries = shift == 0
+                ? cacheIndex.subMap(from, true, from + removedSize, false)
+                : cacheIndex.tailMap(from, true);
+
+        if (affectedEntries.isEmpty()) {
+            return;
+        }
+
+        final List<CacheEntry> entries = new ArrayList<>(affectedEntries.values());
+
+        affectedEntries.clear();
+
+        for (CacheEntry entry : entries) {
+            if (entry.index < from + removedSize) {
+                cache.remove(entry);
+            } else {
+                entry.index += shift;
+
+                cacheIndex.put(entry.index, entry);
+            }
+        }
+    }
+
+    public Function<? super F, ? extends E> getMapper() {
+        return mapper;
+    }
+
+    /**
+     * A cached value together with the index of its source value
+     */
+    private static final class CacheEntry {
+        /**
+         * The current index of the source value
+         */
+        private int index;
+
+        /**
+         * The object returned by {@link CachePolicy#store(Object)}
+         */
+        private final Object stored;
+
+        /**
+         * Constructor
+         *
+         * @param index  The index of the source value
+         * @param stored The stored object
+         */
+        private CacheEntry(int index, Object stored) {
+            this.index = index;
+            this.stored = stored;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.collections.ListChangeListener.Change;
+import javafx.collections.ObservableList;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * An implementation of a mapped {@link ObservableList}, which maps the values of the source {@link ObservableList} to
+ * <code>long</code> values. The mapped values are stored in a <code>long</code> array and can be read without boxing
+ * via {@link #getLong(int)}
+ *
+ * @param <F> The instance type of the source elements
+ */
+public class LongMappedList<F> extends PrimitiveMappedList<Long, F> {
+    /**
+     * The mapper function used to map the source values to <code>long</code> values
+     */
+    private final ToLongFunction<? super F> mapper;
+
+    /**
+     * The mapped values, only the first {@link #size()} values are valid
+     */
+    private long[] mappedValues;
+
+    /**
+     * Constructor
+     *
+     * @param source The source list
+     * @param mapper The mapper function
+     */
+    public LongMappedList(ObservableList<? extends F> source, ToLongFunction<? super F> mapper) {
+        super(source);
+
+        this.mapper = mapper;
+        this.mappedValues = new long[source.size()];
+
+        insertValues(0, source);
+
+        fireInitialisationChange();
+    }
+
+    /**
+     * Gets the mapped value at the given index without boxing it
+     *
+     * @param index The index
+     * @return The mapped value
+     */
+    public long getLong(int index) {
+        checkIndex(index);
+
+        return mappedValues[index];
+    }
+
+    /**
+     * Copies all mapped values into a new <code>long</code> array
+     *
+     * @return A new array containing all mapped values
+     */
+    public long[] toLongArray() {
+        return Arrays.copyOf(mappedValues, size());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int capacity() {
+        return mappedValues.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void resize(int capacity) {
+        mappedValues = Arrays.copyOf(mappedValues, capacity);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void move(int from, int to, int length) {
+        System.arraycopy(mappedValues, from, mappedValues, to, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void map(int index, F value) {
+        mappedValues[index] = mapper.applyAsLong(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void reorder(int from, int to, Change<? extends F> change) {
+        final long[] permutedValues = Arrays.copyOfRange(mappedValues, from, to);
+
+        for (int i = from; i < to; i++) {
+            mappedValues[change.getPermutation(i)] = permutedValues[i - from];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Long box(int index) {
+        return mappedValues[index];
+    }
+}
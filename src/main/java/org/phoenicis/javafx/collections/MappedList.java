@@ -1,19 +1,57 @@
 package org.phoenicis.javafx.collections;
 
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
 import javafx.collections.ListChangeListener.Change;
 import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
-import java.util.stream.IntStream;
 
 /**
  * An implementation of a mapped {@link ObservableList}, which maps the values of the source {@link ObservableList} into
  * values of the target type {@link E}.
+ * <p>
+ * Optionally the list can map large ranges of source values in parallel on a given {@link Executor}.
+ * In this case the calling thread waits until all values are mapped and then publishes them as a single change,
+ * which requires the mapper function to be thread-safe.
+ * <p>
+ * When the mapper function is replaced, all mapped values are replaced by a single change.
+ * If an equivalence is set, only the values that are not equivalent to their previously mapped values are replaced.
+ * In addition updated source values, whose new mapped value is equivalent to the previous one, are not reported as
+ * updated, e.g. when an extractor of the source list observes properties that are not read by the mapper function
+ * <p>
+ * If move detection is enabled, source values which are removed and added again inside of the same change, e.g. when
+ * they are moved by a drag and drop or when the source list is reset with mostly the same values, keep their mapped
+ * values instead of being mapped again. Removed and added source values are matched by identity or, if a move key
+ * function is set, by the equality of their keys
+ * <p>
+ * If a dependency function is set, the list listens to the {@link Observable}s returned by it for every source value
+ * and re-maps only the source values depending on an invalidated observable. The dependencies of a source value are
+ * determined again whenever it is re-mapped. Every distinct observable is observed by a single listener, which is
+ * removed when no source value depends on the observable anymore
+ * <p>
+ * The mapped values are stored in a persistent structure, which shares its unmodified parts with its previous versions.
+ * Therefore {@link #snapshot()} returns an immutable copy of the mapped values in constant time, which can be read
+ * by other threads, while every modification of this list costs logarithmic time
  *
  * @param <E> The instance type of the target elements
  * @param <F> The instance type of the source elements
@@ -28,51 +66,175 @@ public class MappedList<E, F> extends TransformationListBase<E, F> {
     /**
      * A list of all mapped values
      */
-    private final List<E> mappedValues;
+    private PersistentVector<E> mappedValues;
+
+    /**
+     * The minimum number of source values, which are mapped in parallel
+     */
+    private final int parallelThreshold;
+
+    /**
+     * The executor used to map source values in parallel or <code>null</code> if all values are mapped sequentially
+     */
+    private final Executor executor;
+
+    /**
+     * The listener reacting to changes of the mapper function
+     */
+    private final ChangeListener<Function<? super F, ? extends E>> mapperListener;
+
+    /**
+     * The listener added to the <code>mapper</code> property, which is either {@link #mapperListener} or a weak
+     * wrapper of it
+     */
+    private final ChangeListener<Function<? super F, ? extends E>> registeredMapperListener;
+
+    /**
+     * The equivalence used to detect mapped values, which did not change after the mapper function was replaced or
+     * the source value was updated, or <code>null</code> if all mapped values are considered to be changed
+     */
+    private BiPredicate<? super E, ? super E> equivalence;
+
+    /**
+     * True if the mapped values of source values, which are removed and added inside of the same change, are reused
+     */
+    private boolean moveDetection;
+
+    /**
+     * The function used to match removed and added source values or <code>null</code> if the source values are
+     * matched by identity
+     */
+    private Function<? super F, ?> moveKey;
+
+    /**
+     * The mapped values of the source values removed by the currently handled change, grouped by their move key.
+     * This field is only set while a change is handled with enabled move detection
+     */
+    private Map<Object, Deque<E>> movedValues;
+
+    /**
+     * The function returning the observables read by the mapper function for a given source value or
+     * <code>null</code> if source values are only re-mapped when the source list reports an update
+     */
+    private Function<? super F, ? extends Observable[]> dependencies;
+
+    /**
+     * The tracked dependencies of all source values in the order of the source values.
+     * The tree is empty if no dependencies are tracked
+     */
+    private final IndexedTree<TrackedElement> trackedElements;
+
+    /**
+     * The listeners of all observables the mapped values depend on, with a single listener per distinct observable
+     */
+    private final Map<Observable, Dependency> dependencyListeners;
 
     /**
      * Constructor
      *
-     * @param source The source list
-     * @param mapper The mapper function
+     * @param source            The source list
+     * @param mapper            The mapper function
+     * @param parallelThreshold The minimum number of source values, which are mapped in parallel
+     * @param executor          The executor used to map the source values in parallel
+     * @param weakListeners     True if the listener on the <code>mapper</code> property should be weak, which allows
+     *                          the list to be garbage collected while the <code>mapper</code> property is still in use
      */
-    public MappedList(ObservableList<? extends F> source, ObjectProperty<Function<? super F, ? extends E>> mapper) {
+    public MappedList(ObservableList<? extends F> source, ObjectProperty<Function<? super F, ? extends E>> mapper,
+            int parallelThreshold, Executor executor, boolean weakListeners) {
         super(source);
 
         this.mapper = mapper;
-        this.mappedValues = new ArrayList<>();
+        this.parallelThreshold = parallelThreshold;
+        this.executor = executor;
+        this.trackedElements = new IndexedTree<>();
+        this.dependencyListeners = new IdentityHashMap<>();
 
         // create a cache of all mapped source elements
-        Optional.ofNullable(getMapper())
-                .ifPresent(mapperFunction -> source.stream().map(mapperFunction).forEach(mappedValues::add));
+        final Function<? super F, ? extends E> initialMapper = getMapper();
+
+        this.mappedValues = initialMapper != null ? PersistentVector.of(mapAll(initialMapper, source))
+                : PersistentVector.empty();
 
         // add a listener to detect changes of the mapper function
-        mapper.addListener((observable, oldMapper, newMapper) -> {
+        this.mapperListener = (observable, oldMapper, newMapper) -> {
             beginChange();
-            // the previous mapper function was not null -> remove all values
-            if (oldMapper != null) {
-                final List<E> removed = new ArrayList<>(mappedValues);
+            if (oldMapper != null && newMapper != null) {
+                // both mapper functions are not null -> replace the values
+                replaceAll(mapAll(newMapper, getSource()));
+            } else if (oldMapper != null) {
+                // the previous mapper function was not null -> remove all values
+                final List<E> removed = mappedValues;
 
-                mappedValues.clear();
+                mappedValues = PersistentVector.empty();
 
                 nextRemove(0, removed);
-            }
-
-            // the current mapper function is not null -> calculate new values
-            if (newMapper != null) {
-                for (F element : getSource()) {
-                    mappedValues.add(newMapper.apply(element));
-                }
+            } else if (newMapper != null) {
+                // the current mapper function is not null -> calculate new values
+                mappedValues = PersistentVector.of(mapAll(newMapper, getSource()));
 
                 nextAdd(0, size());
             }
+
+            // the dependencies of the source values may differ between the mapper functions
+            trackAll();
             endChange();
-        });
+        };
+        this.registeredMapperListener = weakListeners ? new WeakChangeListener<>(mapperListener) : mapperListener;
+
+        mapper.addListener(registeredMapperListener);
 
         // fire an initialisation event containing all mapped elements
         fireInitialisationChange();
     }
 
+    /**
+     * Constructor
+     *
+     * @param source            The source list
+     * @param mapper            The mapper function
+     * @param parallelThreshold The minimum number of source values, which are mapped in parallel
+     * @param executor          The executor used to map the source values in parallel
+     */
+    public MappedList(ObservableList<? extends F> source, ObjectProperty<Function<? super F, ? extends E>> mapper,
+            int parallelThreshold, Executor executor) {
+        this(source, mapper, parallelThreshold, executor, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source            The source list
+     * @param mapper            The mapper function
+     * @param parallelThreshold The minimum number of source values, which are mapped in parallel
+     * @param executor          The executor used to map the source values in parallel
+     */
+    public MappedList(ObservableList<? extends F> source, Function<? super F, ? extends E> mapper,
+            int parallelThreshold, Executor executor) {
+        this(source, new SimpleObjectProperty<>(mapper), parallelThreshold, executor);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source        The source list
+     * @param mapper        The mapper function
+     * @param weakListeners True if the listener on the <code>mapper</code> property should be weak
+     */
+    public MappedList(ObservableList<? extends F> source, ObjectProperty<Function<? super F, ? extends E>> mapper,
+            boolean weakListeners) {
+        this(source, mapper, Integer.MAX_VALUE, null, weakListeners);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source The source list
+     * @param mapper The mapper function
+     */
+    public MappedList(ObservableList<? extends F> source, ObjectProperty<Function<? super F, ? extends E>> mapper) {
+        this(source, mapper, false);
+    }
+
     /**
      * Constructor
      *
@@ -131,13 +293,62 @@ public class MappedList<E, F> extends TransformationListBase<E, F> {
     /**
      * {@inheritDoc}
      * <p>
-     * If no mapper function is set, the size of this list is always <code>0</code>, otherwise it equals
-     * the size of the source list
+     * If no mapper function is set or the list has been disposed, the size of this list is always <code>0</code>,
+     * otherwise it equals the size of the source list
      */
     @Override
     public int size() {
-        return Optional.ofNullable(getMapper())
-                .map(mapper -> getSource().size()).orElse(0);
+        if (isDisposed() || getMapper() == null) {
+            return 0;
+        }
+
+        return getSource().size();
+    }
+
+    /**
+     * Creates an immutable copy of the current values of this list in constant time.
+     * The returned list shares its structure with this list, is not affected by later changes of this list and can be
+     * read by arbitrary threads
+     *
+     * @return An immutable copy of the current values
+     */
+    public List<E> snapshot() {
+        return mappedValues;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void release() {
+        mapper.removeListener(registeredMapperListener);
+
+        mappedValues = PersistentVector.empty();
+        movedValues = null;
+
+        untrackAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void sourceChanged(Change<? extends F> change) {
+        if (isDisposed()) {
+            return;
+        }
+
+        if (moveDetection && getMapper() != null) {
+            movedValues = collectRemovedValues(change);
+
+            change.reset();
+        }
+
+        try {
+            super.sourceChanged(change);
+        } finally {
+            movedValues = null;
+        }
     }
 
     /**
@@ -149,12 +360,23 @@ public class MappedList<E, F> extends TransformationListBase<E, F> {
         final int to = change.getTo();
 
         if (to > from) {
-            final List<E> clone = new ArrayList<>(mappedValues);
-            final int[] perm = IntStream.range(0, size()).toArray();
+            // only the permuted range of the mapped values is copied
+            final Object[] newValues = new Object[to - from];
+            final int[] perm = borrowPermutation(to - from);
 
             for (int i = from; i < to; ++i) {
-                perm[i] = change.getPermutation(i);
-                mappedValues.set(i, clone.get(change.getPermutation(i)));
+                perm[i - from] = change.getPermutation(i);
+                newValues[change.getPermutation(i) - from] = mappedValues.get(i);
+            }
+
+            @SuppressWarnings("unchecked")
+            final List<E> newValueList = (List<E>) Arrays.asList(newValues);
+
+            // the permuted values are written in place, which only copies the nodes containing them
+            mappedValues = mappedValues.withValues(from, newValueList);
+
+            if (isTracking()) {
+                permuteTrackedElements(change);
             }
 
             nextPermutation(from, to, perm);
@@ -173,9 +395,7 @@ public class MappedList<E, F> extends TransformationListBase<E, F> {
 
         if (mapper != null) {
             for (int i = from; i < to; ++i) {
-                mappedValues.set(i, mapper.apply(getSource().get(i)));
-
-                nextUpdate(i);
+                remap(mapper, i);
             }
         }
     }
@@ -190,15 +410,451 @@ public class MappedList<E, F> extends TransformationListBase<E, F> {
         final Function<? super F, ? extends E> mapper = getMapper();
 
         if (mapper != null) {
-            for (int index = from + change.getRemovedSize() - 1; index >= from; index--) {
-                nextRemove(index, mappedValues.remove(index));
+            if (change.wasReplaced()) {
+                replaceRange(mapper, change);
+            } else if (change.wasRemoved()) {
+                final int to = from + change.getRemovedSize();
+
+                // the removed values are copied by the change builder
+                nextRemove(from, mappedValues.slice(from, to));
+
+                mappedValues = mappedValues.withRemoved(from, to);
+
+                untrack(from, to);
+            } else {
+                final List<E> addedValues = mapAdded(mapper, change);
+
+                mappedValues = mappedValues.withInserted(from, addedValues);
+
+                track(from, change.getAddedSubList());
+
+                nextAdd(from, from + addedValues.size());
+            }
+        }
+    }
+
+    /**
+     * Replaces the range of mapped values removed by the given change with the mapped values of the added source
+     * values and reports a single replace change.
+     * If the whole list is replaced, e.g. by a <code>setAll</code> of the source list, the mapped values are built
+     * in a single pass without modifying the previous mapped values
+     *
+     * @param mapper The mapper function
+     * @param change The source change, which removes and adds values
+     */
+    private void replaceRange(Function<? super F, ? extends E> mapper, Change<? extends F> change) {
+        final int from = change.getFrom();
+        final int to = from + change.getRemovedSize();
+
+        final PersistentVector<E> removedValues = mappedValues.slice(from, to);
+        final List<E> addedValues = mapAdded(mapper, change);
+
+        if (from == 0 && to == mappedValues.size()) {
+            mappedValues = PersistentVector.of(addedValues);
+        } else {
+            mappedValues = mappedValues.withRemoved(from, to).withInserted(from, addedValues);
+        }
+
+        // the new dependencies are acquired first, which keeps the listeners of observables used by both
+        track(from + change.getRemovedSize(), change.getAddedSubList());
+        untrack(from, to);
+
+        // the removed values are copied by the change builder
+        nextReplace(from, from + addedValues.size(), removedValues);
+    }
+
+    /**
+     * Maps the source values added by the given change, while reusing moved values if move detection is active
+     *
+     * @param mapper The mapper function
+     * @param change The source change
+     * @return A list containing the mapped values in the order of the added source values
+     */
+    private List<E> mapAdded(Function<? super F, ? extends E> mapper, Change<? extends F> change) {
+        return movedValues != null
+                ? mapOrReuse(mapper, change.getAddedSubList())
+                : mapAll(mapper, change.getAddedSubList());
+    }
+
+    /**
+     * Replaces all mapped values with the given new values, which need to have the same size as the mapped values.
+     * If no equivalence is set, a single replace change is reported for all values, otherwise only the ranges of
+     * values, which are not equivalent to their previous value, are replaced and reported
+     *
+     * @param newValues The new mapped values
+     */
+    private void replaceAll(List<E> newValues) {
+        final int size = newValues.size();
+
+        if (equivalence == null) {
+            // the removed values are copied by the change builder
+            nextReplace(0, size, mappedValues);
+
+            mappedValues = PersistentVector.of(newValues);
+        } else {
+            int index = 0;
+            while (index < size) {
+                if (equivalence.test(mappedValues.get(index), newValues.get(index))) {
+                    // keep the previous value, because the listeners are not informed about a replacement
+                    index++;
+                } else {
+                    final int from = index;
+
+                    while (index < size && !equivalence.test(mappedValues.get(index), newValues.get(index))) {
+                        index++;
+                    }
+
+                    nextReplace(from, index, mappedValues.slice(from, index));
+
+                    mappedValues = mappedValues.withRemoved(from, index)
+                            .withInserted(from, newValues.subList(from, index));
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps the source value at the given index again and reports an update if its new mapped value is not equivalent
+     * to its previous mapped value. Afterwards the dependencies of the source value are tracked again
+     *
+     * @param mapper The mapper function
+     * @param index  The index of the source value
+     */
+    private void remap(Function<? super F, ? extends E> mapper, int index) {
+        final F value = getSource().get(index);
+        final E newValue = mapper.apply(value);
+
+        // keep the previous value of unchanged indices, because the listeners are not informed about them
+        if (equivalence == null || !equivalence.test(mappedValues.get(index), newValue)) {
+            mappedValues = mappedValues.withValue(index, newValue);
+
+            // adjacent updated indices are coalesced into a single range by the change builder
+            nextUpdate(index);
+        }
+
+        if (isTracking()) {
+            retrack(trackedElements.get(index).getValue(), value);
+        }
+    }
+
+    /**
+     * Checks whether the dependencies of the source values are tracked
+     *
+     * @return True if a dependency function and a mapper function are set and the list has not been disposed
+     */
+    private boolean isTracking() {
+        return dependencies != null && getMapper() != null && !isDisposed();
+    }
+
+    /**
+     * Releases the dependencies of all source values and tracks them again, if tracking is active
+     */
+    private void trackAll() {
+        untrackAll();
+
+        track(0, getSource());
+    }
+
+    /**
+     * Tracks the dependencies of the given source values, which have been inserted at the given index, if tracking is
+     * active
+     *
+     * @param from   The index of the first source value
+     * @param values The inserted source values
+     */
+    private void track(int from, List<? extends F> values) {
+        if (isTracking()) {
+            final List<TrackedElement> newElements = new ArrayList<>(values.size());
+
+            for (int i = 0; i < values.size(); i++) {
+                newElements.add(new TrackedElement());
+            }
+
+            trackedElements.insertAll(from, newElements, element -> 1)
+                    .forEach(node -> node.getValue().node = node);
+
+            for (int i = 0; i < values.size(); i++) {
+                newElements.get(i).dependencies = acquire(newElements.get(i), values.get(i));
+            }
+        }
+    }
+
+    /**
+     * Determines the dependencies of the given source value again and replaces the dependencies of its tracked element
+     *
+     * @param element The tracked element of the source value
+     * @param value   The source value
+     */
+    private void retrack(TrackedElement element, F value) {
+        final List<Dependency> oldDependencies = element.dependencies;
+
+        // the new dependencies are acquired first, which keeps the listeners of unchanged dependencies
+        element.dependencies = acquire(element, value);
+
+        for (Dependency dependency : oldDependencies) {
+            if (!element.dependencies.contains(dependency)) {
+                release(dependency, element);
+            }
+        }
+    }
+
+    /**
+     * Releases the dependencies of the source values between <code>from</code> (inclusive) and <code>to</code>
+     * (exclusive), which have been removed from the source list
+     *
+     * @param from The index of the first removed source value
+     * @param to   The index after the last removed source value
+     */
+    private void untrack(int from, int to) {
+        if (trackedElements.size() > 0 && to > from) {
+            for (IndexedTree.Node<TrackedElement> node : trackedElements.removeRange(from, to)) {
+                final TrackedElement element = node.getValue();
+
+                for (Dependency dependency : element.dependencies) {
+                    release(dependency, element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the listeners of all dependencies and all tracked elements
+     */
+    private void untrackAll() {
+        for (Dependency dependency : dependencyListeners.values()) {
+            dependency.observable.removeListener(dependency.listener);
+        }
+
+        dependencyListeners.clear();
+        trackedElements.clear();
+    }
+
+    /**
+     * Registers the given tracked element at the dependencies of the given source value.
+     * A listener is only added to observables, which are not observed yet
+     *
+     * @param element The tracked element
+     * @param value   The source value
+     * @return The distinct dependencies of the source value
+     */
+    private List<Dependency> acquire(TrackedElement element, F value) {
+        final Observable[] observables = dependencies.apply(value);
+        final List<Dependency> result = new ArrayList<>(observables.length);
+
+        for (Observable observable : observables) {
+            Dependency dependency = dependencyListeners.get(observable);
+
+            if (dependency == null) {
+                dependency = new Dependency(observable);
+
+                dependencyListeners.put(observable, dependency);
+                observable.addListener(dependency.listener);
+            }
+
+            if (!result.contains(dependency)) {
+                dependency.elements.add(element);
+                result.add(dependency);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Unregisters the given tracked element from the given dependency.
+     * The listener of the dependency is removed, if no tracked element depends on it anymore
+     *
+     * @param dependency The dependency
+     * @param element    The tracked element
+     */
+    private void release(Dependency dependency, TrackedElement element) {
+        dependency.elements.remove(element);
+
+        if (dependency.elements.isEmpty()) {
+            dependency.observable.removeListener(dependency.listener);
+
+            dependencyListeners.remove(dependency.observable);
+        }
+    }
+
+    /**
+     * Moves the tracked elements according to the given permutation
+     *
+     * @param change The source change, which permutes the source values
+     */
+    private void permuteTrackedElements(Change<? extends F> change) {
+        trackedElements.permute(change, null);
+
+        // the tracked elements have been moved to new nodes
+        IndexedTree.Node<TrackedElement> node = trackedElements.get(change.getFrom());
+        for (int i = change.getFrom(); i < change.getTo(); i++) {
+            node.getValue().node = node;
+
+            node = IndexedTree.next(node);
+        }
+    }
+
+    /**
+     * Collects the mapped values of all source values removed by the given change, before the change is applied.
+     * Afterwards the change needs to be reset
+     *
+     * @param change The source change
+     * @return The removed mapped values grouped by the move keys of their source values or <code>null</code> if the
+     *         change does not add any values
+     */
+    private Map<Object, Deque<E>> collectRemovedValues(Change<? extends F> change) {
+        final Map<Object, Deque<E>> result = moveKey == null ? new IdentityHashMap<>() : new HashMap<>();
+
+        // the difference between the indices after and before the already visited sub-changes
+        int shift = 0;
+        boolean added = false;
+
+        while (change.next()) {
+            if (!change.wasPermutated() && !change.wasUpdated()) {
+                final int oldFrom = change.getFrom() - shift;
+                final List<? extends F> removed = change.getRemoved();
+
+                for (int i = 0; i < removed.size(); i++) {
+                    result.computeIfAbsent(toMoveKey(removed.get(i)), key -> new LinkedList<>())
+                            .add(mappedValues.get(oldFrom + i));
+                }
+
+                shift += change.getAddedSize() - change.getRemovedSize();
+                added |= change.wasAdded();
+            }
+        }
+
+        return added && !result.isEmpty() ? result : null;
+    }
+
+    /**
+     * Maps the given added source values, while reusing the mapped values of matching removed source values
+     *
+     * @param mapper The mapper function
+     * @param values The added source values
+     * @return A list containing the mapped values in the order of the source values
+     */
+    private List<E> mapOrReuse(Function<? super F, ? extends E> mapper, List<? extends F> values) {
+        final List<E> result = new ArrayList<>(values.size());
+        final List<F> unmatchedValues = new ArrayList<>();
+        final boolean[] matched = new boolean[values.size()];
+
+        for (int i = 0; i < values.size(); i++) {
+            final Deque<E> candidates = movedValues.get(toMoveKey(values.get(i)));
+
+            if (candidates != null && !candidates.isEmpty()) {
+                matched[i] = true;
+                result.add(candidates.poll());
+            } else {
+                unmatchedValues.add(values.get(i));
+                result.add(null);
+            }
+        }
+
+        if (!unmatchedValues.isEmpty()) {
+            final List<E> mappedUnmatchedValues = mapAll(mapper, unmatchedValues);
+
+            int position = 0;
+            for (int i = 0; i < values.size(); i++) {
+                if (!matched[i]) {
+                    result.set(i, mappedUnmatchedValues.get(position++));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Calculates the key used to match removed and added source values
+     *
+     * @param value The source value
+     * @return The move key of the source value
+     */
+    private Object toMoveKey(F value) {
+        return moveKey == null ? value : moveKey.apply(value);
+    }
+
+    /**
+     * Maps the given source values with the given mapper function.
+     * If the number of values reaches the parallel threshold the values are mapped in parallel
+     *
+     * @param mapper The mapper function
+     * @param values The source values
+     * @return A list containing the mapped values in the order of the source values
+     */
+    private List<E> mapAll(Function<? super F, ? extends E> mapper, List<? extends F> values) {
+        final List<E> result;
+
+        if (executor != null && values.size() >= parallelThreshold) {
+            result = mapParallel(mapper, values);
+        } else {
+            result = new ArrayList<>(values.size());
+
+            for (F value : values) {
+                result.add(mapper.apply(value));
             }
+        }
+
+        return result;
+    }
+
+    /**
+     * Maps the given source values in parallel with the given mapper function.
+     * The values are split into one chunk per available worker, where the first chunk is mapped by the calling thread
+     *
+     * @param mapper The mapper function
+     * @param values The source values
+     * @return A list containing the mapped values in the order of the source values
+     */
+    private List<E> mapParallel(Function<? super F, ? extends E> mapper, List<? extends F> values) {
+        // copy the source values, because the source list is not necessarily safe to read from other threads
+        final Object[] input = values.toArray();
+        @SuppressWarnings("unchecked")
+        final E[] output = (E[]) new Object[input.length];
+
+        final int parallelism = executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        final int chunks = Math.max(1, Math.min(parallelism, input.length));
+        final int chunkSize = (input.length + chunks - 1) / chunks;
+
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks - 1];
 
-            for (int index = from; index < from + change.getAddedSize(); index++) {
-                mappedValues.add(index, mapper.apply(getSource().get(index)));
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            final int from = chunk * chunkSize;
+            final int to = Math.min(input.length, from + chunkSize);
 
-                nextAdd(index, index + 1);
+            futures[chunk - 1] = CompletableFuture.runAsync(() -> mapRange(mapper, input, output, from, to), executor);
+        }
+
+        mapRange(mapper, input, output, 0, Math.min(input.length, chunkSize));
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+
+            throw e;
+        }
+
+        return Arrays.asList(output);
+    }
+
+    /**
+     * Maps the source values between <code>from</code> (inclusive) and <code>to</code> (exclusive)
+     *
+     * @param mapper The mapper function
+     * @param input  The source values
+     * @param output The array receiving the mapped values
+     * @param from   The first index to map
+     * @param to     The index after the last index to map
+     */
+    @SuppressWarnings("unchecked")
+    private void mapRange(Function<? super F, ? extends E> mapper, Object[] input, E[] output, int from, int to) {
+        for (int i = from; i < to; i++) {
+            output[i] = mapper.apply((F) input[i]);
         }
     }
 
@@ -213,4 +869,109 @@ public class MappedList<E, F> extends TransformationListBase<E, F> {
     public ObjectProperty<Function<? super F, ? extends E>> mapperProperty() {
         return mapper;
     }
+
+    public BiPredicate<? super E, ? super E> getEquivalence() {
+        return equivalence;
+    }
+
+    public void setEquivalence(BiPredicate<? super E, ? super E> equivalence) {
+        this.equivalence = equivalence;
+    }
+
+    public boolean isMoveDetection() {
+        return moveDetection;
+    }
+
+    public void setMoveDetection(boolean moveDetection) {
+        this.moveDetection = moveDetection;
+    }
+
+    public Function<? super F, ?> getMoveKey() {
+        return moveKey;
+    }
+
+    public void setMoveKey(Function<? super F, ?> moveKey) {
+        this.moveKey = moveKey;
+    }
+
+    public Function<? super F, ? extends Observable[]> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Sets the function returning the observables read by the mapper function for a given source value.
+     * The dependencies of all source values are determined immediately
+     *
+     * @param dependencies The dependency function or <code>null</code> to stop tracking dependencies
+     */
+    public void setDependencies(Function<? super F, ? extends Observable[]> dependencies) {
+        this.dependencies = dependencies;
+
+        trackAll();
+    }
+
+    /**
+     * The tracked dependencies of a single source value
+     */
+    private final class TrackedElement {
+        /**
+         * The node of this element, whose position is the index of the corresponding source value
+         */
+        private IndexedTree.Node<TrackedElement> node;
+
+        /**
+         * The distinct dependencies of the source value
+         */
+        private List<Dependency> dependencies;
+    }
+
+    /**
+     * An observable read by the mapper function together with the listener observing it and all tracked elements
+     * depending on it
+     */
+    private final class Dependency {
+        /**
+         * The observable
+         */
+        private final Observable observable;
+
+        /**
+         * The listener re-mapping the depending source values, when the observable is invalidated
+         */
+        private final InvalidationListener listener;
+
+        /**
+         * The tracked elements depending on the observable
+         */
+        private final Set<TrackedElement> elements;
+
+        /**
+         * Constructor
+         *
+         * @param observable The observable
+         */
+        private Dependency(Observable observable) {
+            this.observable = observable;
+            this.listener = invalidated -> onInvalidated();
+            this.elements = new HashSet<>();
+        }
+
+        /**
+         * Re-maps all source values depending on the observable and reports them as a single change
+         */
+        private void onInvalidated() {
+            beginDeferredChange();
+
+            beginChange();
+
+            final Function<? super F, ? extends E> mapper = getMapper();
+
+            // re-mapping a source value can change its dependencies, therefore the elements are copied first
+            for (TrackedElement element : new ArrayList<>(elements)) {
+                remap(mapper, trackedElements.rank(element.node));
+            }
+
+            endChange();
+        }
+    }
 }
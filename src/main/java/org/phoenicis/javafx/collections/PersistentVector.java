@@ -0,0 +1,881 @@
+package org.phoenicis.javafx.collections;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An immutable list, which shares its structure with the lists it has been derived from.
+ * <p>
+ * The values are stored in chunks of up to {@link #CHUNK_SIZE} values, which are the nodes of an implicit treap.
+ * The nodes are never modified after their creation, instead every modification copies the path from the root to the
+ * modified node, which costs logarithmic time, while all other nodes are shared between the old and the new list.
+ * Therefore a list can be handed to other threads in constant time and read there while the owner of the list
+ * continues to derive modified lists from it.
+ * <p>
+ * Splitting the tree for a modification can leave partially filled chunks behind. To keep the tree from fragmenting
+ * into nearly empty chunks, which would increase the cost of {@link #get(int)}, neighbouring chunks at the positions
+ * modified by {@link #withInserted(int, List)}, {@link #withRemoved(int, int)} and {@link #concat(PersistentVector)}
+ * are coalesced into a single chunk whenever their values fit into one chunk
+ *
+ * @param <E> The instance type of the elements in the list
+ */
+final class PersistentVector<E> extends AbstractList<E> {
+    /**
+     * The maximum number of values stored in a single node
+     */
+    static final int CHUNK_SIZE = 32;
+
+    /**
+     * The empty list
+     */
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(null);
+
+    /**
+     * An immutable node of a {@link PersistentVector}
+     */
+    private static final class Node {
+        /**
+         * The values of this node, which are never empty
+         */
+        private final Object[] values;
+
+        private final Node left;
+
+        private final Node right;
+
+        /**
+         * The heap priority of this node
+         */
+        private final int priority;
+
+        /**
+         * The number of values in the subtree of this node
+         */
+        private final int size;
+
+        /**
+         * Constructor
+         *
+         * @param values   The values of the node
+         * @param left     The left child or <code>null</code>
+         * @param right    The right child or <code>null</code>
+         * @param priority The heap priority of the node
+         */
+        private Node(Object[] values, Node left, Node right, int priority) {
+            this.values = values;
+            this.left = left;
+            this.right = right;
+            this.priority = priority;
+            this.size = values.length + size(left) + size(right);
+        }
+
+        /**
+         * Creates a copy of this node with the given children
+         *
+         * @param newLeft  The new left child
+         * @param newRight The new right child
+         * @return The new node
+         */
+        private Node withChildren(Node newLeft, Node newRight) {
+            return new Node(values, newLeft, newRight, priority);
+        }
+
+        /**
+         * Creates a copy of this node with the given values
+         *
+         * @param newValues The new values
+         * @return The new node
+         */
+        private Node withValues(Object[] newValues) {
+            return new Node(newValues, left, right, priority);
+        }
+    }
+
+    /**
+     * The root of this list or <code>null</code> if the list is empty
+     */
+    private final Node root;
+
+    /**
+     * Constructor
+     *
+     * @param root The root of the list
+     */
+    private PersistentVector(Node root) {
+        super();
+
+        this.root = root;
+    }
+
+    /**
+     * Gets the empty list
+     *
+     * @param <E> The instance type of the elements in the list
+     * @return The empty list
+     */
+    @SuppressWarnings("unchecked")
+    static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * Creates a new list containing the given values in linear time
+     *
+     * @param values The values
+     * @param <E>    The instance type of the elements in the list
+     * @return The new list
+     */
+    static <E> PersistentVector<E> of(Collection<? extends E> values) {
+        if (values instanceof PersistentVector) {
+            @SuppressWarnings("unchecked")
+            final PersistentVector<E> vector = (PersistentVector<E>) values;
+
+            return vector;
+        }
+
+        return values.isEmpty() ? empty() : new PersistentVector<>(build(values.toArray()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        checkIndex(index, size());
+
+        Node node = root;
+        int position = index;
+
+        while (true) {
+            final int leftSize = size(node.left);
+
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position < leftSize + node.values.length) {
+                return (E) node.values[position - leftSize];
+            } else {
+                position -= leftSize + node.values.length;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            /**
+             * The nodes, whose values and right subtrees have not been visited yet
+             */
+            private final Deque<Node> path = new ArrayDeque<>();
+
+            /**
+             * The node, whose values are currently visited
+             */
+            private Node current;
+
+            /**
+             * The index of the next visited value in {@link #current}
+             */
+            private int position;
+
+            {
+                pushLeftPath(root);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return (current != null && position < current.values.length) || !path.isEmpty();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (current == null || position == current.values.length) {
+                    if (path.isEmpty()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    current = path.pop();
+                    position = 0;
+
+                    pushLeftPath(current.right);
+                }
+
+                return (E) current.values[position++];
+            }
+
+            /**
+             * Pushes the given node and all its left descendants onto the path
+             *
+             * @param node The node
+             */
+            private void pushLeftPath(Node node) {
+                for (Node left = node; left != null; left = left.left) {
+                    path.push(left);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a new list, in which the value at the given index is replaced
+     *
+     * @param index The index of the replaced value
+     * @param value The new value
+     * @return The new list
+     */
+    PersistentVector<E> withValue(int index, E value) {
+        checkIndex(index, size());
+
+        return new PersistentVector<>(set(root, index, value));
+    }
+
+    /**
+     * Creates a new list, in which the values starting at the given index are replaced with the given values.
+     * Only the nodes containing replaced values and their ancestors are copied
+     *
+     * @param from   The index of the first replaced value
+     * @param values The new values
+     * @return The new list
+     */
+    PersistentVector<E> withValues(int from, List<? extends E> values) {
+        checkRange(from, from + values.size());
+
+        if (values.isEmpty()) {
+            return this;
+        }
+
+        return new PersistentVector<>(setRange(root, from, from + values.size(), values, -from));
+    }
+
+    /**
+     * Creates a new list, in which the given values are inserted at the given index
+     *
+     * @param index  The index of the first inserted value
+     * @param values The inserted values
+     * @return The new list
+     */
+    PersistentVector<E> withInserted(int index, List<? extends E> values) {
+        checkIndex(index, size() + 1);
+
+        if (values.isEmpty()) {
+            return this;
+        }
+
+        if (values.size() == 1) {
+            return new PersistentVector<>(insert(root, index, values.get(0)));
+        }
+
+        final Node[] parts = split(root, index);
+        final Node inserted = merge(merge(parts[0], build(values.toArray())), parts[1]);
+
+        return new PersistentVector<>(coalesceAround(coalesceAround(inserted, index), index + values.size()));
+    }
+
+    /**
+     * Creates a new list, in which the values between <code>from</code> (inclusive) and <code>to</code> (exclusive)
+     * are removed
+     *
+     * @param from The index of the first removed value
+     * @param to   The index after the last removed value
+     * @return The new list
+     */
+    PersistentVector<E> withRemoved(int from, int to) {
+        checkRange(from, to);
+
+        if (from == to) {
+            return this;
+        }
+
+        final Node removed;
+
+        if (to - from == 1) {
+            removed = remove(root, from);
+        } else {
+            final Node[] prefix = split(root, from);
+            final Node[] suffix = split(prefix[1], to - from);
+
+            removed = merge(prefix[0], suffix[1]);
+        }
+
+        return new PersistentVector<>(coalesceAround(removed, from));
+    }
+
+    /**
+     * Creates a new list containing the values between <code>from</code> (inclusive) and <code>to</code> (exclusive)
+     * in logarithmic time.
+     * Only the first and the last chunk of the new list can be partially filled, they are coalesced with their
+     * neighbours once the new list is modified or concatenated
+     *
+     * @param from The index of the first contained value
+     * @param to   The index after the last contained value
+     * @return The new list
+     */
+    PersistentVector<E> slice(int from, int to) {
+        checkRange(from, to);
+
+        final Node[] prefix = split(root, from);
+        final Node[] suffix = split(prefix[1], to - from);
+
+        return new PersistentVector<>(suffix[0]);
+    }
+
+    /**
+     * Creates a new list containing the values of this list followed by the values of the given list in logarithmic
+     * time
+     *
+     * @param other The appended list
+     * @return The new list
+     */
+    PersistentVector<E> concat(PersistentVector<? extends E> other) {
+        if (other.root == null) {
+            return this;
+        }
+
+        return new PersistentVector<>(coalesceAround(merge(root, other.root), size()));
+    }
+
+    /**
+     * Gets the number of chunks storing the values of this list
+     *
+     * @return The number of chunks
+     */
+    int chunkCount() {
+        return chunkCount(root);
+    }
+
+    /**
+     * Checks whether the given <code>from</code> and <code>to</code> indices describe a range inside of this list
+     *
+     * @param from The first index of the range
+     * @param to   The index after the last index of the range
+     */
+    private void checkRange(int from, int to) {
+        if (from < 0 || to > size() || from > to) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Replaces the value at the given index in the subtree of the given node
+     *
+     * @param node  The root of the subtree
+     * @param index The index inside of the subtree
+     * @param value The new value
+     * @return The root of the new subtree
+     */
+    private static Node set(Node node, int index, Object value) {
+        final int leftSize = size(node.left);
+
+        if (index < leftSize) {
+            return node.withChildren(set(node.left, index, value), node.right);
+        }
+
+        if (index < leftSize + node.values.length) {
+            final Object[] newValues = node.values.clone();
+
+            newValues[index - leftSize] = value;
+
+            return node.withValues(newValues);
+        }
+
+        return node.withChildren(node.left, set(node.right, index - leftSize - node.values.length, value));
+    }
+
+    /**
+     * Replaces the values between <code>from</code> (inclusive) and <code>to</code> (exclusive) in the subtree of the
+     * given node. The value at index <code>i</code> of the subtree is replaced by the value at index
+     * <code>i + shift</code> of the given values
+     *
+     * @param node   The root of the subtree
+     * @param from   The index of the first replaced value inside of the subtree
+     * @param to     The index after the last replaced value inside of the subtree
+     * @param values The new values
+     * @param shift  The offset between the indices of the subtree and the indices of the new values
+     * @return The root of the new subtree
+     */
+    private static Node setRange(Node node, int from, int to, List<?> values, int shift) {
+        if (from >= to) {
+            return node;
+        }
+
+        final int leftSize = size(node.left);
+        final int valuesEnd = leftSize + node.values.length;
+
+        final Node newLeft = from < leftSize ? setRange(node.left, from, Math.min(to, leftSize), values, shift)
+                : node.left;
+        final Node newRight = to > valuesEnd
+                ? setRange(node.right, Math.max(from - valuesEnd, 0), to - valuesEnd, values, shift + valuesEnd)
+                : node.right;
+
+        Object[] newValues = node.values;
+
+        if (from < valuesEnd && to > leftSize) {
+            newValues = node.values.clone();
+
+            for (int i = Math.max(from, leftSize); i < Math.min(to, valuesEnd); i++) {
+                newValues[i - leftSize] = values.get(i + shift);
+            }
+        }
+
+        return new Node(newValues, newLeft, newRight, node.priority);
+    }
+
+    /**
+     * Inserts a single value at the given index into the tree with the given root.
+     * The value is inserted into an existing node, if the node is not full, otherwise the full node is replaced by two
+     * nodes
+     *
+     * @param root  The root of the tree
+     * @param index The index of the inserted value
+     * @param value The inserted value
+     * @return The root of the new tree
+     */
+    private static Node insert(Node root, int index, Object value) {
+        if (root == null) {
+            return leaf(new Object[] { value });
+        }
+
+        final Node result = insertIntoNode(root, index, value);
+
+        if (result != null) {
+            return result;
+        }
+
+        // the node receiving the value is full, cut it out of the tree
+        final int start = chunkStart(root, index);
+        final Node[] prefix = split(root, start);
+        final Node[] chunk = split(prefix[1], chunkLength(root, index));
+
+        final Object[] values = chunk[0].values;
+        final int position = index - start;
+
+        final Node replacement;
+        if (position == values.length) {
+            replacement = merge(leaf(values), leaf(new Object[] { value }));
+        } else if (position == 0) {
+            replacement = merge(leaf(new Object[] { value }), leaf(values));
+        } else {
+            final Object[] newValues = new Object[values.length + 1];
+
+            System.arraycopy(values, 0, newValues, 0, position);
+            newValues[position] = value;
+            System.arraycopy(values, position, newValues, position + 1, values.length - position);
+
+            final int half = newValues.length / 2;
+
+            replacement = merge(leaf(Arrays.copyOfRange(newValues, 0, half)),
+                    leaf(Arrays.copyOfRange(newValues, half, newValues.length)));
+        }
+
+        return merge(merge(prefix[0], replacement), chunk[1]);
+    }
+
+    /**
+     * Inserts a single value at the given index into the node receiving the value in the subtree of the given node.
+     * The node receiving a value is the first node, whose values range contains the index or ends directly before it
+     *
+     * @param node  The root of the subtree
+     * @param index The index inside of the subtree
+     * @param value The inserted value
+     * @return The root of the new subtree or <code>null</code> if the node receiving the value is full
+     */
+    private static Node insertIntoNode(Node node, int index, Object value) {
+        final int leftSize = size(node.left);
+
+        if (index < leftSize) {
+            final Node newLeft = insertIntoNode(node.left, index, value);
+
+            return newLeft == null ? null : node.withChildren(newLeft, node.right);
+        }
+
+        if (index <= leftSize + node.values.length) {
+            if (node.values.length == CHUNK_SIZE) {
+                return null;
+            }
+
+            final int position = index - leftSize;
+            final Object[] newValues = new Object[node.values.length + 1];
+
+            System.arraycopy(node.values, 0, newValues, 0, position);
+            newValues[position] = value;
+            System.arraycopy(node.values, position, newValues, position + 1, node.values.length - position);
+
+            return node.withValues(newValues);
+        }
+
+        final Node newRight = insertIntoNode(node.right, index - leftSize - node.values.length, value);
+
+        return newRight == null ? null : node.withChildren(node.left, newRight);
+    }
+
+    /**
+     * Finds the index of the first value in the node receiving a value inserted at the given index
+     *
+     * @param node  The root of the tree
+     * @param index The index of the inserted value
+     * @return The index of the first value in the receiving node
+     */
+    private static int chunkStart(Node node, int index) {
+        int start = 0;
+        int position = index;
+
+        while (true) {
+            final int leftSize = size(node.left);
+
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position <= leftSize + node.values.length) {
+                return start + leftSize;
+            } else {
+                start += leftSize + node.values.length;
+                position -= leftSize + node.values.length;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Finds the number of values in the node receiving a value inserted at the given index
+     *
+     * @param node  The root of the tree
+     * @param index The index of the inserted value
+     * @return The number of values in the receiving node
+     */
+    private static int chunkLength(Node node, int index) {
+        int position = index;
+
+        while (true) {
+            final int leftSize = size(node.left);
+
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position <= leftSize + node.values.length) {
+                return node.values.length;
+            } else {
+                position -= leftSize + node.values.length;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Removes the value at the given index from the subtree of the given node
+     *
+     * @param node  The root of the subtree
+     * @param index The index inside of the subtree
+     * @return The root of the new subtree
+     */
+    private static Node remove(Node node, int index) {
+        final int leftSize = size(node.left);
+
+        if (index < leftSize) {
+            return node.withChildren(remove(node.left, index), node.right);
+        }
+
+        if (index < leftSize + node.values.length) {
+            if (node.values.length == 1) {
+                // the children have lower priorities than the removed node
+                return merge(node.left, node.right);
+            }
+
+            final int position = index - leftSize;
+            final Object[] newValues = new Object[node.values.length - 1];
+
+            System.arraycopy(node.values, 0, newValues, 0, position);
+            System.arraycopy(node.values, position + 1, newValues, position, newValues.length - position);
+
+            return node.withValues(newValues);
+        }
+
+        return node.withChildren(node.left, remove(node.right, index - leftSize - node.values.length));
+    }
+
+    /**
+     * Coalesces the chunks next to the given index, which is the position of a modification, with their neighbours.
+     * Both the chunk containing the value before the index and the chunk containing the value at the index are
+     * coalesced with one of their neighbours, if their values fit into a single chunk
+     *
+     * @param root  The root of the tree
+     * @param index The index of the modification
+     * @return The root of the new tree
+     */
+    private static Node coalesceAround(Node root, int index) {
+        return coalesce(coalesce(root, index - 1), index);
+    }
+
+    /**
+     * Coalesces the chunk containing the value at the given index with its previous or its next chunk, if their
+     * values fit into a single chunk
+     *
+     * @param root  The root of the tree
+     * @param index The index of a value in the chunk
+     * @return The root of the new tree
+     */
+    private static Node coalesce(Node root, int index) {
+        if (index < 0 || index >= size(root)) {
+            return root;
+        }
+
+        final int start = containingChunkStart(root, index);
+        final int length = containingChunkLength(root, index);
+
+        if (start > 0) {
+            final int previousLength = containingChunkLength(root, start - 1);
+
+            if (previousLength + length <= CHUNK_SIZE) {
+                return joinChunks(root, start - previousLength, previousLength + length);
+            }
+        }
+
+        if (start + length < size(root)) {
+            final int nextLength = containingChunkLength(root, start + length);
+
+            if (length + nextLength <= CHUNK_SIZE) {
+                return joinChunks(root, start, length + nextLength);
+            }
+        }
+
+        return root;
+    }
+
+    /**
+     * Replaces the chunks storing the values between <code>from</code> (inclusive) and <code>from + length</code>
+     * (exclusive) with a single chunk. The range needs to start and end at chunk boundaries
+     *
+     * @param root   The root of the tree
+     * @param from   The index of the first value of the first chunk
+     * @param length The number of values in the joined chunks, which must not exceed {@link #CHUNK_SIZE}
+     * @return The root of the new tree
+     */
+    private static Node joinChunks(Node root, int from, int length) {
+        final Node[] prefix = split(root, from);
+        final Node[] range = split(prefix[1], length);
+
+        final Object[] values = new Object[length];
+
+        copyValues(range[0], values, 0);
+
+        return merge(merge(prefix[0], leaf(values)), range[1]);
+    }
+
+    /**
+     * Copies the values of the subtree of the given node into the given array
+     *
+     * @param node   The root of the subtree
+     * @param target The target array
+     * @param offset The index in the target array receiving the first value of the subtree
+     */
+    private static void copyValues(Node node, Object[] target, int offset) {
+        if (node != null) {
+            copyValues(node.left, target, offset);
+
+            final int valuesOffset = offset + size(node.left);
+
+            System.arraycopy(node.values, 0, target, valuesOffset, node.values.length);
+
+            copyValues(node.right, target, valuesOffset + node.values.length);
+        }
+    }
+
+    /**
+     * Finds the index of the first value in the node containing the value at the given index
+     *
+     * @param node  The root of the tree
+     * @param index The index of the value
+     * @return The index of the first value in the containing node
+     */
+    private static int containingChunkStart(Node node, int index) {
+        int start = 0;
+        int position = index;
+
+        while (true) {
+            final int leftSize = size(node.left);
+
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position < leftSize + node.values.length) {
+                return start + leftSize;
+            } else {
+                start += leftSize + node.values.length;
+                position -= leftSize + node.values.length;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Finds the number of values in the node containing the value at the given index
+     *
+     * @param node  The root of the tree
+     * @param index The index of the value
+     * @return The number of values in the containing node
+     */
+    private static int containingChunkLength(Node node, int index) {
+        int position = index;
+
+        while (true) {
+            final int leftSize = size(node.left);
+
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position < leftSize + node.values.length) {
+                return node.values.length;
+            } else {
+                position -= leftSize + node.values.length;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Splits the subtree of the given node into the first <code>index</code> values and the remaining values.
+     * A node containing values of both parts is divided into two nodes
+     *
+     * @param node  The root of the subtree
+     * @param index The number of values in the first part
+     * @return An array containing the roots of both parts
+     */
+    private static Node[] split(Node node, int index) {
+        if (index == 0) {
+            return new Node[] { null, node };
+        }
+
+        if (index == size(node)) {
+            return new Node[] { node, null };
+        }
+
+        final int leftSize = size(node.left);
+
+        if (index <= leftSize) {
+            final Node[] parts = split(node.left, index);
+
+            return new Node[] { parts[0], node.withChildren(parts[1], node.right) };
+        }
+
+        if (index >= leftSize + node.values.length) {
+            final Node[] parts = split(node.right, index - leftSize - node.values.length);
+
+            return new Node[] { node.withChildren(node.left, parts[0]), parts[1] };
+        }
+
+        final int position = index - leftSize;
+
+        return new Node[] {
+                new Node(Arrays.copyOfRange(node.values, 0, position), node.left, null, node.priority),
+                new Node(Arrays.copyOfRange(node.values, position, node.values.length), null, node.right,
+                        node.priority) };
+    }
+
+    /**
+     * Merges the two given subtrees, where all values of <code>left</code> are positioned before all values of
+     * <code>right</code>
+     *
+     * @param left  The root of the left subtree
+     * @param right The root of the right subtree
+     * @return The root of the merged subtree
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            return left.withChildren(left.left, merge(left.right, right));
+        } else {
+            return right.withChildren(merge(left, right.left), right.right);
+        }
+    }
+
+    /**
+     * Builds a treap containing the given values, which are split into full chunks
+     *
+     * @param values The values
+     * @return The root of the new treap
+     */
+    private static Node build(Object[] values) {
+        final int chunks = (values.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final int[] priorities = new int[chunks];
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            priorities[chunk] = ThreadLocalRandom.current().nextInt();
+        }
+
+        return build(values, priorities, 0, chunks);
+    }
+
+    /**
+     * Builds the cartesian tree of the chunks between <code>from</code> (inclusive) and <code>to</code> (exclusive)
+     *
+     * @param values     The values
+     * @param priorities The priorities of the chunks
+     * @param from       The first chunk
+     * @param to         The chunk after the last chunk
+     * @return The root of the built subtree
+     */
+    private static Node build(Object[] values, int[] priorities, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+
+        int top = from;
+        for (int chunk = from + 1; chunk < to; chunk++) {
+            if (priorities[chunk] > priorities[top]) {
+                top = chunk;
+            }
+        }
+
+        final Object[] chunkValues = Arrays.copyOfRange(values, top * CHUNK_SIZE,
+                Math.min(values.length, (top + 1) * CHUNK_SIZE));
+
+        return new Node(chunkValues, build(values, priorities, from, top), build(values, priorities, top + 1, to),
+                priorities[top]);
+    }
+
+    /**
+     * Creates a new node without children and with a random priority
+     *
+     * @param values The values of the node
+     * @return The new node
+     */
+    private static Node leaf(Object[] values) {
+        return new Node(values, null, null, ThreadLocalRandom.current().nextInt());
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int chunkCount(Node node) {
+        return node == null ? 0 : 1 + chunkCount(node.left) + chunkCount(node.right);
+    }
+}
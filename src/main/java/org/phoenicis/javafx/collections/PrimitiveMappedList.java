@@ -0,0 +1,282 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ListChangeListener.Change;
+import javafx.collections.ObservableArray;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A base class for mapped {@link ObservableList}s, which store the mapped values in a primitive array instead of
+ * boxing them. The mapped values are kept in the order of the source values.
+ * <p>
+ * Implementations only need to manage the primitive array, while this class propagates the permutations, updates,
+ * additions and removals of the source list
+ *
+ * @param <E> The boxed type of the mapped values
+ * @param <F> The instance type of the source elements
+ */
+abstract class PrimitiveMappedList<E, F> extends TransformationListBase<E, F> {
+    /**
+     * The number of mapped values
+     */
+    private int size;
+
+    /**
+     * Constructor
+     *
+     * @param source The source list
+     */
+    protected PrimitiveMappedList(ObservableList<? extends F> source) {
+        super(source);
+    }
+
+    /**
+     * Gets the capacity of the primitive array
+     *
+     * @return The length of the primitive array
+     */
+    protected abstract int capacity();
+
+    /**
+     * Replaces the primitive array with a new array of the given capacity, which contains the current mapped values
+     *
+     * @param capacity The length of the new primitive array
+     */
+    protected abstract void resize(int capacity);
+
+    /**
+     * Copies <code>length</code> mapped values from <code>from</code> to <code>to</code> inside the primitive array
+     *
+     * @param from   The index of the first copied value
+     * @param to     The index of the first target position
+     * @param length The number of copied values
+     */
+    protected abstract void move(int from, int to, int length);
+
+    /**
+     * Maps the given source value and stores the result at the given index of the primitive array
+     *
+     * @param index The index in the primitive array
+     * @param value The source value
+     */
+    protected abstract void map(int index, F value);
+
+    /**
+     * Reorders the mapped values between <code>from</code> (inclusive) and <code>to</code> (exclusive) according to
+     * the given permutation change
+     *
+     * @param from   The index of the first permuted value
+     * @param to     The index after the last permuted value
+     * @param change The permutation change
+     */
+    protected abstract void reorder(int from, int to, Change<? extends F> change);
+
+    /**
+     * Boxes the mapped value at the given index
+     *
+     * @param index The index in the primitive array
+     * @return The boxed mapped value
+     */
+    protected abstract E box(int index);
+
+    /**
+     * Checks whether the given index is a valid index of this list
+     *
+     * @param index The index
+     * @throws IndexOutOfBoundsException If the index is not valid
+     */
+    protected void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Fills the given {@link ObservableArray} with the mapped values of this list and keeps it in sync with this list.
+     * After every change of this list only the range of the array, which differs from the new mapped values, is
+     * copied. If the size of this list changed, this range reaches from the first changed index to the end of the list
+     *
+     * @param array The array mirroring the mapped values
+     * @param copy  The function copying a range of the mapped values into the array
+     */
+    protected void mirrorTo(ObservableArray<?> array, RangeCopy copy) {
+        array.resize(size);
+
+        copy.copy(0, size);
+
+        addListener((ListChangeListener.Change<? extends E> change) -> {
+            int from = size;
+            int to = 0;
+
+            while (change.next()) {
+                from = Math.min(from, change.getFrom());
+
+                if (!change.wasPermutated() && !change.wasUpdated()
+                        && change.getAddedSize() != change.getRemovedSize()) {
+                    // the following values are shifted
+                    to = size;
+                } else {
+                    to = Math.max(to, change.getTo());
+                }
+            }
+
+            if (array.size() != size) {
+                array.resize(size);
+            }
+
+            if (to > from) {
+                copy.copy(from, to);
+            }
+        });
+    }
+
+    /**
+     * Maps the given source values and inserts them at the given index
+     *
+     * @param from   The index of the first inserted value
+     * @param values The source values
+     */
+    protected void insertValues(int from, List<? extends F> values) {
+        final int count = values.size();
+
+        if (size + count > capacity()) {
+            resize(Math.max(size + count, capacity() + (capacity() >> 1)));
+        }
+
+        move(from, from + count, size - from);
+
+        for (int i = 0; i < count; i++) {
+            map(from + i, values.get(i));
+        }
+
+        size += count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSourceIndex(int index) {
+        checkIndex(index);
+
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getViewIndex(int index) {
+        checkIndex(index);
+
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E get(int index) {
+        checkIndex(index);
+
+        return box(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void release() {
+        size = 0;
+
+        resize(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void permute(Change<? extends F> change) {
+        final int from = change.getFrom();
+        final int to = change.getTo();
+
+        if (to > from) {
+            final int[] perm = new int[to - from];
+
+            for (int i = from; i < to; i++) {
+                perm[i - from] = change.getPermutation(i);
+            }
+
+            reorder(from, to, change);
+
+            nextPermutation(from, to, perm);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void update(Change<? extends F> change) {
+        for (int i = change.getFrom(); i < change.getTo(); i++) {
+            map(i, getSource().get(i));
+
+            nextUpdate(i);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void addRemove(Change<? extends F> change) {
+        final int from = change.getFrom();
+
+        if (change.wasRemoved()) {
+            final int removedSize = change.getRemovedSize();
+            final List<E> removed = new ArrayList<>(removedSize);
+
+            for (int i = from; i < from + removedSize; i++) {
+                removed.add(box(i));
+            }
+
+            move(from + removedSize, from, size - from - removedSize);
+
+            size -= removedSize;
+
+            nextRemove(from, removed);
+        }
+
+        if (change.wasAdded()) {
+            insertValues(from, change.getAddedSubList());
+
+            nextAdd(from, from + change.getAddedSize());
+        }
+    }
+
+    /**
+     * A function copying a range of the mapped values into an array mirroring them
+     */
+    @FunctionalInterface
+    protected interface RangeCopy {
+        /**
+         * Copies the mapped values between <code>from</code> (inclusive) and <code>to</code> (exclusive) to the same
+         * indices of the mirroring array
+         *
+         * @param from The index of the first copied value
+         * @param to   The index after the last copied value
+         */
+        void copy(int from, int to);
+    }
+}
@@ -5,23 +5,127 @@ import javafx.collections.ListChangeListener.Change;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.TransformationList;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
 /**
  * A base class for a {@link TransformationList}.
  * This class differs from {@link TransformationList} because it divides the {@link TransformationList#sourceChanged(ListChangeListener.Change)}
- * function call into multiple other function calls depending on the type of occured change
+ * function call into multiple other function calls depending on the type of occured change.
+ * <p>
+ * Optionally the list collects {@link TransformationListStatistics} about the handled source changes and the fired
+ * changes. While the statistics are disabled, which is the default, no additional work is done.
+ * <p>
+ * In addition the list can be switched into a deferred mode by setting a change scheduler. In deferred mode all source
+ * changes are applied immediately, but they are collected and merged into a single normalized {@link Change}, which is
+ * fired once the scheduled flush is executed or {@link #flush()} is called. The scheduler needs to execute the flush on
+ * the thread owning the list, e.g. by passing <code>Platform::runLater</code> to flush once per pulse.
+ * Because the list already reports its new values before the change is fired, deferred mode is only meant for the last
+ * list of a chain, which is observed by the UI. Therefore a list in deferred mode can't be used as the source of
+ * another {@link TransformationListBase} and a list, which is the source of another {@link TransformationListBase},
+ * can't be switched into deferred mode. Other observers, e.g. a {@link TransformationList} of JavaFX, can't be
+ * detected and need to be avoided by the caller
+ * <p>
+ * A list, which is no longer needed, should be disposed by calling {@link #dispose()} or {@link #close()}.
+ * Disposing a list removes all its elements, releases all listeners it has added to other observables and all internal
+ * storage, and stops the handling of further source changes
  *
  * @param <E> The target type of the list
  * @param <F> The source type of the list
  */
-public abstract class TransformationListBase<E, F> extends TransformationList<E, F> {
+public abstract class TransformationListBase<E, F> extends TransformationList<E, F> implements AutoCloseable {
+    /**
+     * The collected statistics or <code>null</code> if the statistics are disabled
+     */
+    private TransformationListStatistics statistics;
+
+    /**
+     * The listener recording the fired changes in the statistics or <code>null</code> if the statistics are disabled
+     */
+    private ListChangeListener<E> statisticsListener;
+
+    /**
+     * The lists using this list as their source, which are not necessarily alive or undisposed anymore
+     */
+    private final List<WeakReference<TransformationListBase<?, ?>>> dependentLists;
+
+    /**
+     * The scheduler used to flush deferred changes or <code>null</code> if changes are fired immediately
+     */
+    private Executor changeScheduler;
+
+    /**
+     * True if a deferred change has been opened, which has not been flushed yet
+     */
+    private boolean deferredChangeOpen;
+
+    /**
+     * True if this list has been disposed
+     */
+    private boolean disposed;
+
+    /**
+     * The number of currently handled source changes, which is larger than one if a listener of this list modifies
+     * the source list while a change is fired
+     */
+    private int sourceChangeDepth;
+
+    /**
+     * A permutation array, which is no longer referenced by a fired change and can be reused, or <code>null</code>
+     */
+    private int[] pooledPermutation;
+
+    /**
+     * The permutation array returned by the last call of {@link #borrowPermutation(int)}, which is referenced by the
+     * change until it has been fired
+     */
+    private int[] borrowedPermutation;
+
+    /**
+     * A buffer reused by {@link #nextInnerListChange(ListChangeListener.Change, IndexedTree, Collection)}, which holds
+     * the offsets of the occurrences of an inner list
+     */
+    private int[] occurrenceOffsets = new int[0];
 
     /**
      * Constructor
      *
      * @param source The source list
+     * @throws IllegalArgumentException If the source list is a {@link TransformationListBase} in deferred mode
      */
     protected TransformationListBase(ObservableList<? extends F> source) {
-        super(source);
+        // the source is checked before the listener on the source is registered by the super constructor
+        super(checkSource(source));
+
+        this.dependentLists = new ArrayList<>();
+
+        if (source instanceof TransformationListBase) {
+            final TransformationListBase<?, ?> sourceList = (TransformationListBase<?, ?>) source;
+
+            sourceList.removeUnusedDependentLists();
+            sourceList.dependentLists.add(new WeakReference<>(this));
+        }
+    }
+
+    /**
+     * Checks whether the given source list can be used as the source of a new {@link TransformationListBase}
+     *
+     * @param source The source list
+     * @param <S> The type of the source list
+     * @return The unchanged source list
+     * @throws IllegalArgumentException If the source list is a {@link TransformationListBase} in deferred mode
+     */
+    private static <S extends ObservableList<?>> S checkSource(S source) {
+        if (source instanceof TransformationListBase
+                && ((TransformationListBase<?, ?>) source).changeScheduler != null) {
+            throw new IllegalArgumentException("A list in deferred mode can't be the source of another list");
+        }
+
+        return source;
     }
 
     /**
@@ -45,22 +149,363 @@ public abstract class TransformationListBase<E, F> extends TransformationList<E,
      */
     protected abstract void addRemove(ListChangeListener.Change<? extends F> change);
 
+    /**
+     * Releases all listeners this list has added to other observables and all internal storage of this list.
+     * This method is called once by {@link #dispose()}, after which {@link #size()} needs to return <code>0</code>
+     */
+    protected void release() {
+        // nothing to release by default
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected void sourceChanged(ListChangeListener.Change<? extends F> change) {
-        beginChange();
+        if (disposed) {
+            return;
+        }
+
+        final TransformationListStatistics statistics = this.statistics;
+
+        if (statistics != null) {
+            statistics.recordSourceChange();
+        }
+
+        beginDeferredChange();
+
+        sourceChangeDepth++;
+
+        // the change is closed and the depth is restored even if a handler or a mapper throws an exception
+        try {
+            beginChange();
+            try {
+                applySourceChange(change, statistics);
+            } finally {
+                endChange();
+            }
+        } finally {
+            sourceChangeDepth--;
+
+            recyclePermutation();
+        }
+    }
+
+    /**
+     * Applies all sub-changes of the given source change to this list
+     *
+     * @param change The input change object from the source list
+     * @param statistics The statistics recording the handled sub-changes or <code>null</code>
+     */
+    private void applySourceChange(ListChangeListener.Change<? extends F> change,
+            TransformationListStatistics statistics) {
         while (change.next()) {
+            final long start = statistics != null ? System.nanoTime() : 0;
+
             if (change.wasPermutated()) {
                 permute(change);
+
+                if (statistics != null) {
+                    statistics.recordPermutation(change.getTo() - change.getFrom(), System.nanoTime() - start);
+                }
             } else if (change.wasUpdated()) {
                 update(change);
+
+                if (statistics != null) {
+                    statistics.recordUpdate(change.getTo() - change.getFrom(), System.nanoTime() - start);
+                }
             } else {
                 addRemove(change);
+
+                if (statistics != null) {
+                    statistics.recordAddRemove(change.getRemovedSize() + change.getAddedSize(),
+                            System.nanoTime() - start);
+                }
             }
         }
-        endChange();
+    }
+
+    /**
+     * Gets an array, which can be passed to {@link #nextPermutation(int, int, int[])} for a permutation of the given
+     * length. The change builder keeps a reference to the passed array until the change has been fired, therefore the
+     * array is only reused after the change containing it has been fired by this list
+     *
+     * @param length The length of the permuted range
+     * @return An array of the given length, whose content is undefined
+     */
+    protected int[] borrowPermutation(int length) {
+        final int[] result;
+
+        if (pooledPermutation != null && pooledPermutation.length == length) {
+            result = pooledPermutation;
+
+            pooledPermutation = null;
+        } else {
+            result = new int[length];
+        }
+
+        borrowedPermutation = result;
+
+        return result;
+    }
+
+    /**
+     * Makes the last borrowed permutation array available again, if all changes of this list have been fired.
+     * Changes, which are not caused by the source list, need to call this method after they have been fired
+     */
+    protected void recyclePermutation() {
+        if (borrowedPermutation != null && sourceChangeDepth == 0 && !deferredChangeOpen) {
+            pooledPermutation = borrowedPermutation;
+            borrowedPermutation = null;
+        }
+    }
+
+    /**
+     * Adds the sub-changes of the given change of an inner list to the current change of this list, once for every
+     * occurrence of the inner list, and updates the weights of the occurrences to the new size of the inner list.
+     * The permutations of all occurrences are combined into a single permutation, because the change builder only
+     * supports one permutation per change. This method needs to be called between {@link #beginChange()} and
+     * {@link #endChange()}, followed by {@link #recyclePermutation()}
+     *
+     * @param change The change of the inner list
+     * @param tree The tree containing the occurrences of the inner list, whose weights are the sizes of the inner lists
+     * @param nodes The nodes of all occurrences of the inner list
+     * @param <T> The type of the values stored in the tree
+     */
+    <T> void nextInnerListChange(ListChangeListener.Change<? extends E> change, IndexedTree<T> tree,
+            Collection<IndexedTree.Node<T>> nodes) {
+        if (occurrenceOffsets.length < nodes.size()) {
+            occurrenceOffsets = new int[nodes.size()];
+        }
+
+        // the offsets of the occurrences before the change, in ascending order
+        final int[] offsets = occurrenceOffsets;
+
+        int occurrence = 0;
+        for (IndexedTree.Node<T> node : nodes) {
+            offsets[occurrence++] = tree.offset(node);
+        }
+
+        Arrays.sort(offsets, 0, occurrence);
+
+        final int last = occurrence - 1;
+
+        // the size difference of the inner list caused by the already processed sub-changes
+        int delta = 0;
+
+        while (change.next()) {
+            final int from = change.getFrom();
+            final int to = change.getTo();
+
+            // the occurrences are processed from back to front, which keeps the offsets of the preceding occurrences
+            // valid
+            if (change.wasPermutated()) {
+                if (to > from) {
+                    // the values between the occurrences keep their positions
+                    final int permutedFrom = offsets[0] + from;
+                    final int permutedTo = offsets[last] + last * delta + to;
+
+                    final int[] perm = borrowPermutation(permutedTo - permutedFrom);
+
+                    for (int i = 0; i < perm.length; i++) {
+                        perm[i] = permutedFrom + i;
+                    }
+
+                    for (occurrence = last; occurrence >= 0; occurrence--) {
+                        final int expandedFrom = offsets[occurrence] + occurrence * delta;
+
+                        for (int i = from; i < to; i++) {
+                            perm[expandedFrom + i - permutedFrom] = expandedFrom + change.getPermutation(i);
+                        }
+                    }
+
+                    nextPermutation(permutedFrom, permutedTo, perm);
+                }
+            } else if (change.wasUpdated()) {
+                for (occurrence = last; occurrence >= 0; occurrence--) {
+                    final int expandedFrom = offsets[occurrence] + occurrence * delta;
+
+                    for (int i = from; i < to; i++) {
+                        nextUpdate(expandedFrom + i);
+                    }
+                }
+            } else {
+                for (occurrence = last; occurrence >= 0; occurrence--) {
+                    final int expandedFrom = offsets[occurrence] + occurrence * delta;
+
+                    if (change.wasReplaced()) {
+                        nextReplace(expandedFrom + from, expandedFrom + to, change.getRemoved());
+                    } else if (change.wasRemoved()) {
+                        nextRemove(expandedFrom + from, change.getRemoved());
+                    } else {
+                        nextAdd(expandedFrom + from, expandedFrom + to);
+                    }
+                }
+
+                delta += change.getAddedSize() - change.getRemovedSize();
+            }
+        }
+
+        final int size = change.getList().size();
+
+        for (IndexedTree.Node<T> node : nodes) {
+            tree.setWeight(node, size);
+        }
+    }
+
+    /**
+     * Opens a deferred change, if this list is in deferred mode and no deferred change is open yet, and schedules
+     * its flush. All changes made until the flush are merged into the deferred change
+     */
+    protected void beginDeferredChange() {
+        if (changeScheduler != null && !deferredChangeOpen) {
+            deferredChangeOpen = true;
+
+            beginChange();
+
+            changeScheduler.execute(this::flush);
+        }
+    }
+
+    /**
+     * Fires the deferred change containing all changes since the last flush.
+     * If no deferred change is open, this method does nothing
+     */
+    public void flush() {
+        if (deferredChangeOpen) {
+            deferredChangeOpen = false;
+
+            endChange();
+
+            recyclePermutation();
+        }
+    }
+
+    /**
+     * Removes all lists from {@link #dependentLists}, which have been garbage collected or disposed
+     */
+    private void removeUnusedDependentLists() {
+        dependentLists.removeIf(reference -> {
+            final TransformationListBase<?, ?> dependentList = reference.get();
+
+            return dependentList == null || dependentList.isDisposed();
+        });
+    }
+
+    /**
+     * Sets the scheduler used to flush deferred changes.
+     * Setting the scheduler to <code>null</code> flushes all open changes and fires future changes immediately
+     *
+     * @param changeScheduler The scheduler or <code>null</code>
+     * @throws IllegalStateException If a scheduler is set, while this list is the source of another
+     *                               {@link TransformationListBase}, which has not been disposed
+     */
+    public void setChangeScheduler(Executor changeScheduler) {
+        if (changeScheduler != null) {
+            removeUnusedDependentLists();
+
+            if (!dependentLists.isEmpty()) {
+                throw new IllegalStateException("A list, which is the source of another list, can't be deferred");
+            }
+        }
+
+        this.changeScheduler = changeScheduler;
+
+        if (changeScheduler == null) {
+            flush();
+        }
+    }
+
+    public Executor getChangeScheduler() {
+        return changeScheduler;
+    }
+
+    /**
+     * Enables or disables the collection of {@link TransformationListStatistics} for this list.
+     * Enabling the statistics starts with fresh counters
+     *
+     * @param enabled True if statistics should be collected, false otherwise
+     */
+    public void setStatisticsEnabled(boolean enabled) {
+        if (enabled && statistics == null) {
+            final TransformationListStatistics newStatistics = new TransformationListStatistics();
+
+            this.statistics = newStatistics;
+            this.statisticsListener = newStatistics::recordFiredChange;
+
+            addListener(statisticsListener);
+        } else if (!enabled && statistics != null) {
+            removeListener(statisticsListener);
+
+            this.statistics = null;
+            this.statisticsListener = null;
+        }
+    }
+
+    /**
+     * Checks whether this list collects {@link TransformationListStatistics}
+     *
+     * @return True if statistics are collected, false otherwise
+     */
+    public boolean isStatisticsEnabled() {
+        return statistics != null;
+    }
+
+    /**
+     * Gets the collected {@link TransformationListStatistics} of this list
+     *
+     * @return The collected statistics or <code>null</code> if the statistics are disabled
+     */
+    public TransformationListStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Disposes this list. All elements are removed from the list with a single change, which is fired immediately,
+     * all listeners added by this list to other observables are removed and all internal storage is released.
+     * Afterwards the list stays empty and ignores all changes of its source list.
+     * The listener on the source list is registered as a weak listener by {@link TransformationList} and can't be
+     * removed explicitly, it is removed by the source list once this list has been garbage collected.
+     * Calling this method on a disposed list does nothing
+     */
+    public void dispose() {
+        if (!disposed) {
+            flush();
+
+            this.changeScheduler = null;
+
+            beginChange();
+            if (size() > 0) {
+                // the removed values are copied by the change builder before the storage is released
+                nextRemove(0, this);
+            }
+
+            disposed = true;
+
+            release();
+            endChange();
+
+            setStatisticsEnabled(false);
+        }
+    }
+
+    /**
+     * Disposes this list
+     *
+     * @see #dispose()
+     */
+    @Override
+    public void close() {
+        dispose();
+    }
+
+    /**
+     * Checks whether this list has been disposed
+     *
+     * @return True if this list has been disposed, false otherwise
+     */
+    public boolean isDisposed() {
+        return disposed;
     }
 
     /**
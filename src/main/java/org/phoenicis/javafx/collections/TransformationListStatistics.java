@@ -0,0 +1,215 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.collections.ListChangeListener;
+
+/**
+ * A set of counters describing the work done by a single {@link TransformationListBase}.
+ * The counters cover the sub-changes received from the source list, the number of touched elements, the time spent
+ * in the handlers and the size of the changes fired to the listeners of the {@link TransformationListBase}
+ */
+public final class TransformationListStatistics {
+    /**
+     * The number of received source changes
+     */
+    private long sourceChanges;
+
+    /**
+     * The number of handled permutation sub-changes
+     */
+    private long permutations;
+
+    /**
+     * The number of handled update sub-changes
+     */
+    private long updates;
+
+    /**
+     * The number of handled add/remove sub-changes
+     */
+    private long addRemoves;
+
+    /**
+     * The number of source elements touched by the handled sub-changes
+     */
+    private long touchedElements;
+
+    /**
+     * The time in nanoseconds spent in {@link TransformationListBase#permute(ListChangeListener.Change)}
+     */
+    private long permuteNanos;
+
+    /**
+     * The time in nanoseconds spent in {@link TransformationListBase#update(ListChangeListener.Change)}
+     */
+    private long updateNanos;
+
+    /**
+     * The time in nanoseconds spent in {@link TransformationListBase#addRemove(ListChangeListener.Change)}
+     */
+    private long addRemoveNanos;
+
+    /**
+     * The number of changes fired to the listeners
+     */
+    private long firedChanges;
+
+    /**
+     * The number of sub-changes fired to the listeners
+     */
+    private long firedSubChanges;
+
+    /**
+     * The number of elements contained in the sub-changes fired to the listeners
+     */
+    private long firedElements;
+
+    /**
+     * Constructor.
+     * The statistics are created by {@link TransformationListBase#setStatisticsEnabled(boolean)} with all counters set
+     * to zero
+     */
+    TransformationListStatistics() {
+        super();
+    }
+
+    /**
+     * Records a received source change
+     */
+    void recordSourceChange() {
+        sourceChanges++;
+    }
+
+    /**
+     * Records a handled permutation sub-change
+     *
+     * @param elements The number of permuted elements
+     * @param nanos    The time spent in the handler
+     */
+    void recordPermutation(int elements, long nanos) {
+        permutations++;
+        touchedElements += elements;
+        permuteNanos += nanos;
+    }
+
+    /**
+     * Records a handled update sub-change
+     *
+     * @param elements The number of updated elements
+     * @param nanos    The time spent in the handler
+     */
+    void recordUpdate(int elements, long nanos) {
+        updates++;
+        touchedElements += elements;
+        updateNanos += nanos;
+    }
+
+    /**
+     * Records a handled add/remove sub-change
+     *
+     * @param elements The number of removed and added elements
+     * @param nanos    The time spent in the handler
+     */
+    void recordAddRemove(int elements, long nanos) {
+        addRemoves++;
+        touchedElements += elements;
+        addRemoveNanos += nanos;
+    }
+
+    /**
+     * Records a change fired to the listeners
+     *
+     * @param change The fired change
+     */
+    void recordFiredChange(ListChangeListener.Change<?> change) {
+        firedChanges++;
+
+        while (change.next()) {
+            firedSubChanges++;
+
+            if (change.wasPermutated() || change.wasUpdated()) {
+                firedElements += change.getTo() - change.getFrom();
+            } else {
+                firedElements += change.getRemovedSize() + change.getAddedSize();
+            }
+        }
+    }
+
+    /**
+     * Resets all counters to <code>0</code>
+     */
+    public void reset() {
+        sourceChanges = 0;
+        permutations = 0;
+        updates = 0;
+        addRemoves = 0;
+        touchedElements = 0;
+        permuteNanos = 0;
+        updateNanos = 0;
+        addRemoveNanos = 0;
+        firedChanges = 0;
+        firedSubChanges = 0;
+        firedElements = 0;
+    }
+
+    public long getSourceChanges() {
+        return sourceChanges;
+    }
+
+    public long getPermutations() {
+        return permutations;
+    }
+
+    public long getUpdates() {
+        return updates;
+    }
+
+    public long getAddRemoves() {
+        return addRemoves;
+    }
+
+    public long getTouchedElements() {
+        return touchedElements;
+    }
+
+    public long getPermuteNanos() {
+        return permuteNanos;
+    }
+
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    public long getAddRemoveNanos() {
+        return addRemoveNanos;
+    }
+
+    public long getFiredChanges() {
+        return firedChanges;
+    }
+
+    public long getFiredSubChanges() {
+        return firedSubChanges;
+    }
+
+    public long getFiredElements() {
+        return firedElements;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "TransformationListStatistics[sourceChanges=" + sourceChanges
+                + ", permutations=" + permutations
+                + ", updates=" + updates
+                + ", addRemoves=" + addRemoves
+                + ", touchedElements=" + touchedElements
+                + ", permuteNanos=" + permuteNanos
+                + ", updateNanos=" + updateNanos
+                + ", addRemoveNanos=" + addRemoveNanos
+                + ", firedChanges=" + firedChanges
+                + ", firedSubChanges=" + firedSubChanges
+                + ", firedElements=" + firedElements + "]";
+    }
+}
@@ -2,14 +2,19 @@ package org.phoenicis.javafx.collections;
 
 import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import org.junit.Test;
 
+import java.lang.reflect.Proxy;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class ConcatenatedListTest {
     @Test
@@ -24,6 +29,28 @@ public class ConcatenatedListTest {
         assertEquals(List.of("11", "21", "22"), actual);
     }
 
+    @Test
+    public void testListCreationCopiesPlainLists() {
+        final List<String> list1 = new ArrayList<>(List.of("11"));
+        final List<String> list2 = new ArrayList<>(List.of("21", "22"));
+
+        final ObservableList<List<String>> observableList = FXCollections.observableArrayList(List.of(list1, list2));
+        final ConcatenatedList<String> concatenatedList = ConcatenatedList.create(observableList);
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, concatenatedList);
+
+        // the plain lists can't fire changes, therefore their modifications must not be visible
+        list1.add("12");
+        list2.clear();
+
+        observableList.add(List.of("31"));
+        observableList.remove(0);
+
+        assertEquals(List.of("21", "22", "31"), concatenatedList);
+        assertEquals(List.of("21", "22", "31"), actual);
+    }
+
     @Test
     public void testListAdd() {
         final ObservableList<ObservableList<String>> observableList = FXCollections
@@ -367,4 +394,543 @@ public class ConcatenatedListTest {
         assertEquals(List.of("11", "22", "21", "31"), concatenatedList);
         assertEquals(List.of("11", "22", "21", "31"), actual);
     }
+
+    @Test
+    public void testIndexResolutionWithEmptyInnerLists() {
+        final ConcatenatedList<String> concatenatedList = ConcatenatedList.create(
+                Collections.emptyList(), List.of("11", "12"), Collections.emptyList(), Collections.emptyList(),
+                List.of("51"), Collections.emptyList());
+
+        assertEquals(3, concatenatedList.size());
+        assertEquals(List.of("11", "12", "51"), concatenatedList);
+
+        assertEquals(1, concatenatedList.getSourceIndex(0));
+        assertEquals(1, concatenatedList.getSourceIndex(1));
+        assertEquals(4, concatenatedList.getSourceIndex(2));
+
+        assertEquals(0, concatenatedList.getViewIndex(1));
+        assertEquals(2, concatenatedList.getViewIndex(2));
+        assertEquals(2, concatenatedList.getViewIndex(4));
+        assertEquals(3, concatenatedList.getViewIndex(5));
+    }
+
+    @Test
+    public void testManyInnerLists() {
+        final ObservableList<ObservableList<Integer>> observableList = FXCollections.observableArrayList();
+        final List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            final ObservableList<Integer> innerList = FXCollections.observableArrayList();
+
+            for (int j = 0; j < i % 7; j++) {
+                innerList.add(i * 10 + j);
+                expected.add(i * 10 + j);
+            }
+
+            observableList.add(innerList);
+        }
+
+        final ConcatenatedList<Integer> concatenatedList = new ConcatenatedList<>(observableList);
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, concatenatedList);
+
+        assertEquals(expected, concatenatedList);
+        assertEquals(expected, actual);
+
+        observableList.remove(500);
+        expected.removeIf(value -> value / 10 == 500);
+
+        assertEquals(expected.size(), concatenatedList.size());
+        assertEquals(expected, concatenatedList);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testInnerListCompoundChange() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("11");
+        final ObservableList<String> list2 = FXCollections.observableArrayList("21", "22", "23", "24", "25");
+        final ObservableList<String> list3 = FXCollections.observableArrayList("31");
+
+        final ObservableList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(list1, list2, list3));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList);
+
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, concatenatedList);
+
+        // removes two non-adjacent ranges in a single change
+        list2.removeAll("22", "24");
+
+        assertEquals(List.of("11", "21", "23", "25", "31"), concatenatedList);
+        assertEquals(List.of("11", "21", "23", "25", "31"), actual);
+
+        list2.setAll("20", "21");
+
+        assertEquals(List.of("11", "20", "21", "31"), concatenatedList);
+        assertEquals(List.of("11", "20", "21", "31"), actual);
+    }
+
+    @Test
+    public void testInnerListPermutationIndices() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("11", "12");
+        final SortedList<String> list2 = FXCollections.observableArrayList("21", "22", "23").sorted();
+
+        final ObservableList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(list1, list2));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList);
+
+        final List<String> actual = new ArrayList<>(concatenatedList);
+
+        bindPermutations(actual, concatenatedList);
+
+        list2.setComparator(Comparator.reverseOrder());
+
+        assertEquals(List.of("11", "12", "23", "22", "21"), concatenatedList);
+        assertEquals(List.of("11", "12", "23", "22", "21"), actual);
+    }
+
+    @Test
+    public void testSnapshotFreeInnerListChanges() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("11");
+        final SortedList<String> list2 = FXCollections.observableArrayList("21", "22").sorted();
+        final ObservableList<String> list3 = FXCollections.observableArrayList("31", "32", "33");
+
+        final ObservableList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(list1, list2, list3));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList, false);
+
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, concatenatedList);
+
+        assertTrue(concatenatedList.isSnapshotFree());
+        assertEquals(List.of("11", "21", "22", "31", "32", "33"), concatenatedList);
+        assertEquals(List.of("11", "21", "22", "31", "32", "33"), actual);
+
+        list1.add(0, "10");
+
+        assertEquals(List.of("10", "11", "21", "22", "31", "32", "33"), concatenatedList);
+        assertEquals(List.of("10", "11", "21", "22", "31", "32", "33"), actual);
+
+        list3.removeAll("31", "33");
+
+        assertEquals(List.of("10", "11", "21", "22", "32"), concatenatedList);
+        assertEquals(List.of("10", "11", "21", "22", "32"), actual);
+
+        list2.setComparator(Comparator.reverseOrder());
+
+        assertEquals(List.of("10", "11", "22", "21", "32"), concatenatedList);
+        assertEquals(List.of("10", "11", "22", "21", "32"), actual);
+    }
+
+    @Test
+    public void testSnapshotFreeListChanges() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("11");
+        final ObservableList<String> list2 = FXCollections.observableArrayList("21", "22");
+        final ObservableList<String> list3 = FXCollections.observableArrayList();
+
+        final ObservableList<ObservableList<String>> lists = FXCollections
+                .observableArrayList(List.of(list1, list2, list3));
+        final SortedList<ObservableList<String>> observableList = lists.sorted(Comparator.comparing(List::size));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList, false);
+
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, concatenatedList);
+
+        assertEquals(List.of("11", "21", "22"), concatenatedList);
+        assertEquals(List.of("11", "21", "22"), actual);
+
+        observableList.setComparator(Comparator.<List<String>, Integer>comparing(List::size).reversed());
+
+        assertEquals(List.of("21", "22", "11"), concatenatedList);
+        assertEquals(List.of("21", "22", "11"), actual);
+
+        lists.remove(list2);
+
+        assertEquals(List.of("11"), concatenatedList);
+        assertEquals(List.of("11"), actual);
+    }
+
+    @Test
+    public void testListPermutationWithDuplicates() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("a", "a", "a");
+        final ObservableList<String> list2 = FXCollections.observableArrayList("b");
+        final ObservableList<String> list3 = FXCollections.observableArrayList("a", "c");
+
+        final SortedList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(list1, list2, list3))
+                .sorted(Comparator.comparing(List::size));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList);
+
+        final List<String> actual = new ArrayList<>(concatenatedList);
+
+        bindPermutations(actual, concatenatedList);
+
+        assertEquals(List.of("b", "a", "c", "a", "a", "a"), concatenatedList);
+
+        observableList.setComparator(Comparator.<List<String>, Integer>comparing(List::size).reversed());
+
+        assertEquals(List.of("a", "a", "a", "a", "c", "b"), concatenatedList);
+        assertEquals(List.of("a", "a", "a", "a", "c", "b"), actual);
+
+        observableList.setComparator(Comparator.comparing(List::size));
+
+        assertEquals(List.of("b", "a", "c", "a", "a", "a"), concatenatedList);
+        assertEquals(List.of("b", "a", "c", "a", "a", "a"), actual);
+    }
+
+    @Test
+    public void testInnerListChangesAfterInsertingListInFront() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("11", "12");
+        final ObservableList<String> list2 = FXCollections.observableArrayList("21");
+
+        final ObservableList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(list1, list2));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList);
+
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, concatenatedList);
+
+        observableList.add(0, FXCollections.observableArrayList("01", "02", "03"));
+
+        // the listeners of the moved inner lists resolve their new positions
+        list2.add("22");
+        list1.remove(0);
+
+        assertEquals(List.of("01", "02", "03", "12", "21", "22"), concatenatedList);
+        assertEquals(List.of("01", "02", "03", "12", "21", "22"), actual);
+
+        observableList.remove(0);
+        list1.add("13");
+
+        assertEquals(List.of("12", "13", "21", "22"), concatenatedList);
+        assertEquals(List.of("12", "13", "21", "22"), actual);
+    }
+
+    @Test
+    public void testRandomChanges() {
+        final Random random = new Random(42);
+
+        final List<ObservableList<Integer>> pool = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            pool.add(FXCollections.observableArrayList());
+        }
+
+        final ObservableList<ObservableList<Integer>> observableList = FXCollections.observableArrayList();
+        final ConcatenatedList<Integer> concatenatedList = new ConcatenatedList<>(observableList);
+        final ConcatenatedList<Integer> snapshotFreeList = new ConcatenatedList<>(observableList, false);
+
+        final List<Integer> actual = new ArrayList<>();
+        final List<Integer> snapshotFreeActual = new ArrayList<>();
+
+        Bindings.bindContent(actual, concatenatedList);
+        Bindings.bindContent(snapshotFreeActual, snapshotFreeList);
+
+        for (int step = 0; step < 500; step++) {
+            final int size = observableList.size();
+            final ObservableList<Integer> innerList = pool.get(random.nextInt(pool.size()));
+
+            switch (random.nextInt(5)) {
+                case 0:
+                    // the same inner list may occur multiple times
+                    observableList.add(random.nextInt(size + 1), innerList);
+                    break;
+                case 1:
+                    if (size > 0) {
+                        observableList.remove(random.nextInt(size));
+                    }
+                    break;
+                case 2:
+                    innerList.add(random.nextInt(innerList.size() + 1), random.nextInt(100));
+                    break;
+                case 3:
+                    if (!innerList.isEmpty()) {
+                        innerList.remove(random.nextInt(innerList.size()));
+                    }
+                    break;
+                default:
+                    FXCollections.shuffle(random.nextBoolean() ? observableList : innerList, random);
+                    break;
+            }
+
+            final List<Integer> expected = observableList.stream().flatMap(List::stream)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, concatenatedList);
+            assertEquals(expected, actual);
+            assertEquals(expected, snapshotFreeList);
+            assertEquals(expected, snapshotFreeActual);
+        }
+    }
+
+    @Test
+    public void testSharedInnerListChanges() {
+        final ObservableList<String> separator = FXCollections.observableArrayList("-");
+        final ObservableList<String> items = FXCollections.observableArrayList("a", "b");
+
+        final ObservableList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(items, separator, items, separator));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList);
+
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, concatenatedList);
+
+        items.add(1, "c");
+        separator.set(0, "|");
+
+        assertEquals(List.of("a", "c", "b", "|", "a", "c", "b", "|"), concatenatedList);
+        assertEquals(List.of("a", "c", "b", "|", "a", "c", "b", "|"), actual);
+
+        // a compound change of the shared inner list
+        items.setAll("d");
+
+        assertEquals(List.of("d", "|", "d", "|"), concatenatedList);
+        assertEquals(List.of("d", "|", "d", "|"), actual);
+
+        FXCollections.reverse(observableList);
+        observableList.remove(0);
+        items.addAll("e", "f");
+
+        assertEquals(List.of("d", "e", "f", "|", "d", "e", "f"), concatenatedList);
+        assertEquals(List.of("d", "e", "f", "|", "d", "e", "f"), actual);
+    }
+
+    @Test
+    public void testSharedInnerListPermutation() {
+        final ObservableList<Integer> items = FXCollections.observableArrayList(3, 2, 1);
+        final ObservableList<Integer> separator = FXCollections.observableArrayList(0);
+
+        final ConcatenatedList<Integer> concatenatedList = ConcatenatedList.create(items, separator, items);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, concatenatedList);
+
+        final List<Integer> permutedIndices = new ArrayList<>();
+
+        concatenatedList.addListener((ListChangeListener.Change<? extends Integer> change) -> {
+            while (change.next()) {
+                assertTrue(change.wasPermutated());
+
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    permutedIndices.add(change.getPermutation(i));
+                }
+            }
+        });
+
+        FXCollections.sort(items);
+
+        assertEquals(List.of(1, 2, 3, 0, 1, 2, 3), concatenatedList);
+        assertEquals(List.of(1, 2, 3, 0, 1, 2, 3), actual);
+
+        // both occurrences are permuted by a single permutation, which keeps the separator in place
+        assertEquals(List.of(2, 1, 0, 3, 6, 5, 4), permutedIndices);
+    }
+
+    @Test
+    public void testSharedInnerListSubscription() {
+        final List<Object> listeners = new ArrayList<>();
+
+        final ObservableList<String> items = observeListeners(FXCollections.observableArrayList("a"), listeners);
+
+        final ObservableList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(items, items, items));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList);
+
+        assertEquals(1, listeners.size());
+
+        observableList.remove(0, 2);
+        items.add("b");
+
+        assertEquals(1, listeners.size());
+        assertEquals(List.of("a", "b"), concatenatedList);
+
+        observableList.clear();
+
+        assertEquals(0, listeners.size());
+    }
+
+    @Test
+    public void testSnapshot() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("11", "12");
+        final ObservableList<String> list2 = FXCollections.observableArrayList("21");
+
+        final ObservableList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(list1, list2, list1));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList);
+        final ConcatenatedList<String> snapshotFreeList = new ConcatenatedList<>(observableList, false);
+
+        final List<String> snapshot = concatenatedList.snapshot();
+        final List<String> snapshotFreeSnapshot = snapshotFreeList.snapshot();
+
+        assertEquals(List.of("11", "12", "21", "11", "12"), snapshot);
+        assertEquals(snapshot, snapshotFreeSnapshot);
+
+        // the snapshot is reused until the list changes
+        assertSame(snapshot, concatenatedList.snapshot());
+
+        list1.add("13");
+        observableList.remove(1);
+
+        assertEquals(List.of("11", "12", "21", "11", "12"), snapshot);
+        assertEquals(List.of("11", "12", "21", "11", "12"), snapshotFreeSnapshot);
+        assertEquals(List.of("11", "12", "13", "11", "12", "13"), concatenatedList.snapshot());
+        assertEquals(List.of("11", "12", "13", "11", "12", "13"), snapshotFreeList.snapshot());
+    }
+
+    @Test
+    public void testSetAllReportsSingleReplace() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("11", "12");
+        final ObservableList<String> list2 = FXCollections.observableArrayList("21");
+        final ObservableList<String> list3 = FXCollections.observableArrayList("31", "32");
+
+        final ObservableList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(list1, list2));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList);
+
+        final List<String> actual = new ArrayList<>();
+        final List<String> subChanges = new ArrayList<>();
+
+        Bindings.bindContent(actual, concatenatedList);
+
+        concatenatedList.addListener((ListChangeListener.Change<? extends String> change) -> {
+            while (change.next()) {
+                subChanges.add(change.getFrom() + ":" + change.getRemoved() + "->" + change.getAddedSubList());
+            }
+        });
+
+        // the retained inner list is still observed afterwards
+        observableList.setAll(List.of(list3, list1));
+        list1.add("13");
+
+        assertEquals(List.of("31", "32", "11", "12", "13"), concatenatedList);
+        assertEquals(List.of("31", "32", "11", "12", "13"), actual);
+        assertEquals(List.of("0:[11, 12, 21]->[31, 32, 11, 12]", "4:[]->[13]"), subChanges);
+
+        subChanges.clear();
+
+        list3.setAll("33");
+
+        assertEquals(List.of("33", "11", "12", "13"), concatenatedList);
+        assertEquals(List.of("33", "11", "12", "13"), actual);
+        assertEquals(List.of("0:[31, 32]->[33]"), subChanges);
+    }
+
+    /**
+     * Wraps the given <code>list</code> in a proxy, which records all {@link ListChangeListener}s currently added to
+     * the list in the given <code>listeners</code> list
+     *
+     * @param list      The wrapped list
+     * @param listeners The list receiving the currently added listeners
+     * @param <E>       The instance type of the elements
+     * @return The wrapping proxy
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> ObservableList<E> observeListeners(ObservableList<E> list, List<Object> listeners) {
+        return (ObservableList<E>) Proxy.newProxyInstance(ObservableList.class.getClassLoader(),
+                new Class<?>[] { ObservableList.class }, (proxy, method, arguments) -> {
+                    if (arguments != null && arguments.length == 1 && arguments[0] instanceof ListChangeListener) {
+                        if (method.getName().equals("addListener")) {
+                            listeners.add(arguments[0]);
+                        } else if (method.getName().equals("removeListener")) {
+                            listeners.remove(arguments[0]);
+                        }
+                    }
+
+                    return method.invoke(list, arguments);
+                });
+    }
+
+    /**
+     * Applies all permutations reported by the given <code>list</code> to the given <code>actual</code> list.
+     * In contrast to {@link Bindings#bindContent(List, ObservableList)} this verifies the reported permutation indices
+     *
+     * @param actual The list to which the permutations are applied
+     * @param list   The observed list, which is only expected to report permutations
+     * @param <E>    The instance type of the elements
+     */
+    private static <E> void bindPermutations(List<E> actual, ObservableList<E> list) {
+        list.addListener((ListChangeListener.Change<? extends E> change) -> {
+            while (change.next()) {
+                assertTrue(change.wasPermutated());
+
+                final List<E> permuted = new ArrayList<>(actual);
+
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    permuted.set(change.getPermutation(i), actual.get(i));
+                }
+
+                actual.clear();
+                actual.addAll(permuted);
+            }
+        });
+    }
+
+    @Test
+    public void testDispose() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("11", "12");
+        final ObservableList<String> list2 = FXCollections.observableArrayList("21");
+
+        final ObservableList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(list1, list2));
+
+        final List<String> actual = new ArrayList<>();
+
+        try (ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList)) {
+            Bindings.bindContent(actual, concatenatedList);
+
+            assertEquals(List.of("11", "12", "21"), actual);
+
+            concatenatedList.close();
+
+            assertTrue(concatenatedList.isDisposed());
+            assertEquals(List.of(), concatenatedList);
+            assertEquals(List.of(), actual);
+
+            // the inner lists are not observed anymore
+            list1.add("13");
+            list2.clear();
+            observableList.add(FXCollections.observableArrayList("31"));
+
+            assertEquals(List.of(), concatenatedList);
+            assertEquals(List.of(), actual);
+        }
+    }
+
+    @Test
+    public void testWeakInnerListeners() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("11", "12");
+        final ObservableList<String> list2 = FXCollections.observableArrayList("21");
+
+        final ObservableList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(list1, list2));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList, true, true);
+
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, concatenatedList);
+
+        list1.add("13");
+        observableList.remove(list2);
+
+        assertEquals(List.of("11", "12", "13"), concatenatedList);
+        assertEquals(List.of("11", "12", "13"), actual);
+
+        // the removed list is detached from its weak listener
+        list2.add("22");
+
+        assertEquals(List.of("11", "12", "13"), concatenatedList);
+
+        concatenatedList.dispose();
+        list1.add("14");
+
+        assertEquals(List.of(), concatenatedList);
+        assertEquals(List.of(), actual);
+    }
+
 }
@@ -0,0 +1,200 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.beans.binding.Bindings;
+import javafx.collections.ListChangeListener;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentSourceListTest {
+    @Test
+    public void testDrainFiresSingleChange() {
+        final ConcurrentSourceList<Integer> sourceList = new ConcurrentSourceList<>(List.of(1, 2, 3), null);
+        final MappedList<String, Integer> mappedList = new MappedList<>(sourceList, String::valueOf);
+
+        final List<String> actual = new ArrayList<>();
+        final AtomicInteger changes = new AtomicInteger();
+
+        Bindings.bindContent(actual, mappedList);
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> changes.incrementAndGet());
+
+        sourceList.enqueueAdd(4);
+        sourceList.enqueueAdd(0, 0);
+        sourceList.enqueueSet(2, 20);
+        sourceList.enqueueRemove(1);
+        sourceList.enqueueRemoveValue(3);
+
+        // nothing is applied before the drain
+        assertTrue(sourceList.hasPendingOperations());
+        assertEquals(List.of("1", "2", "3"), mappedList);
+
+        assertEquals(5, sourceList.drain());
+
+        assertFalse(sourceList.hasPendingOperations());
+        assertEquals(List.of(0, 20, 4), sourceList);
+        assertEquals(List.of("0", "20", "4"), mappedList);
+        assertEquals(List.of("0", "20", "4"), actual);
+        assertEquals(1, changes.get());
+    }
+
+    @Test
+    public void testSetAllAndClear() {
+        final ConcurrentSourceList<Integer> sourceList = new ConcurrentSourceList<>(List.of(1, 2, 3), null);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, sourceList);
+
+        sourceList.enqueueSetAll(List.of(7, 8));
+        sourceList.enqueueAddAll(List.of(9));
+        sourceList.drain();
+
+        assertEquals(List.of(7, 8, 9), actual);
+
+        sourceList.enqueueClear();
+        sourceList.drain();
+
+        assertEquals(List.of(), actual);
+    }
+
+    @Test
+    public void testDrainScheduler() {
+        final List<Runnable> scheduledDrains = new ArrayList<>();
+
+        final ConcurrentSourceList<Integer> sourceList = new ConcurrentSourceList<>(scheduledDrains::add);
+
+        sourceList.enqueueAdd(1);
+        sourceList.enqueueAdd(2);
+        sourceList.enqueueAdd(3);
+
+        // only a single drain is scheduled for multiple operations
+        assertEquals(1, scheduledDrains.size());
+
+        scheduledDrains.remove(0).run();
+
+        assertEquals(List.of(1, 2, 3), sourceList);
+
+        sourceList.enqueueAdd(4);
+
+        assertEquals(1, scheduledDrains.size());
+    }
+
+    @Test
+    public void testFailingOperation() {
+        final ConcurrentSourceList<Integer> sourceList = new ConcurrentSourceList<>(List.of(1), null);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, sourceList);
+
+        sourceList.enqueueAdd(2);
+        sourceList.enqueueRemove(5);
+        sourceList.enqueueAdd(3);
+
+        try {
+            sourceList.drain();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+
+        assertEquals(List.of(1, 2), actual);
+
+        sourceList.drain();
+
+        assertEquals(List.of(1, 2, 3), actual);
+    }
+
+    @Test
+    public void testFailingOperationWithDrainScheduler() {
+        final List<Runnable> scheduledDrains = new ArrayList<>();
+        final ConcurrentSourceList<Integer> sourceList = new ConcurrentSourceList<>(List.of(1), scheduledDrains::add);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, sourceList);
+
+        sourceList.enqueueAdd(2);
+        sourceList.enqueueRemove(5);
+        sourceList.enqueueAdd(3);
+        sourceList.enqueueAdd(4);
+
+        assertEquals(1, scheduledDrains.size());
+
+        try {
+            scheduledDrains.remove(0).run();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+
+        assertEquals(List.of(1, 2), actual);
+
+        // the remaining operations are drained without waiting for another enqueued operation
+        assertEquals(1, scheduledDrains.size());
+
+        scheduledDrains.remove(0).run();
+
+        assertEquals(List.of(1, 2, 3, 4), actual);
+        assertTrue(scheduledDrains.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        final ConcurrentSourceList<Integer> sourceList = new ConcurrentSourceList<>();
+        final MappedList<Integer, Integer> mappedList = new MappedList<>(sourceList, value -> value * 2);
+
+        final int producerCount = 4;
+        final int valueCount = 1000;
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> producers = new ArrayList<>();
+
+        for (int producer = 0; producer < producerCount; producer++) {
+            final int offset = producer * valueCount;
+
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                for (int value = offset; value < offset + valueCount; value++) {
+                    sourceList.enqueueAdd(value);
+                }
+            });
+
+            thread.start();
+            producers.add(thread);
+        }
+
+        start.countDown();
+
+        // drain concurrently to the producers
+        while (producers.stream().anyMatch(Thread::isAlive)) {
+            sourceList.drain();
+        }
+
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        sourceList.drain();
+
+        final Set<Integer> expected = IntStream.range(0, producerCount * valueCount).map(value -> value * 2).boxed()
+                .collect(Collectors.toSet());
+
+        assertEquals(producerCount * valueCount, mappedList.size());
+        assertEquals(expected, Set.copyOf(mappedList));
+    }
+}
@@ -0,0 +1,151 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableFloatArray;
+import javafx.collections.ObservableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DoubleMappedListTest {
+    @Test
+    public void testListChanges() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1));
+        final DoubleMappedList<Integer> mappedList = new DoubleMappedList<>(observableList, value -> value / 2.0);
+
+        final List<Double> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        assertEquals(List.of(1.5, 3.5, 0.5), actual);
+        assertEquals(3.5, mappedList.getDouble(1), 0);
+
+        observableList.add(1, 2);
+        observableList.remove(Integer.valueOf(7));
+        FXCollections.sort(observableList);
+
+        assertEquals(List.of(0.5, 1.0, 1.5), mappedList);
+        assertEquals(List.of(0.5, 1.0, 1.5), actual);
+        assertArrayEquals(new double[] { 0.5, 1.0, 1.5 }, mappedList.toDoubleArray(), 0);
+    }
+
+    @Test
+    public void testObservableArray() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1));
+        final DoubleMappedList<Integer> mappedList = new DoubleMappedList<>(observableList, value -> value / 2.0);
+
+        final ObservableFloatArray array = mappedList.toObservableArray();
+
+        assertArrayEquals(new float[] { 1.5f, 3.5f, 0.5f }, array.toArray(null), 0);
+
+        observableList.remove(0);
+
+        assertArrayEquals(new float[] { 3.5f, 0.5f }, array.toArray(null), 0);
+    }
+
+    @Test
+    public void testListPermutation() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1));
+        final DoubleMappedList<Integer> mappedList = new DoubleMappedList<>(observableList, value -> value / 2.0);
+
+        final List<Double> actual = new ArrayList<>();
+        final ObservableFloatArray array = mappedList.toObservableArray();
+
+        Bindings.bindContent(actual, mappedList);
+
+        FXCollections.sort(observableList);
+
+        assertEquals(List.of(0.5, 1.5, 3.5), mappedList);
+        assertEquals(List.of(0.5, 1.5, 3.5), actual);
+        assertArrayEquals(new float[] { 0.5f, 1.5f, 3.5f }, array.toArray(null), 0);
+    }
+
+    @Test
+    public void testListUpdate() {
+        final IntegerProperty first = new SimpleIntegerProperty(1);
+        final IntegerProperty second = new SimpleIntegerProperty(2);
+
+        final ObservableList<IntegerProperty> observableList = FXCollections
+                .observableArrayList(property -> new Observable[] { property });
+        observableList.addAll(first, second);
+
+        final DoubleMappedList<IntegerProperty> mappedList = new DoubleMappedList<>(observableList,
+                property -> property.get() / 2.0);
+
+        final List<Integer> updatedIndices = new ArrayList<>();
+        final ObservableFloatArray array = mappedList.toObservableArray();
+
+        mappedList.addListener((ListChangeListener.Change<? extends Double> change) -> {
+            while (change.next()) {
+                if (change.wasUpdated()) {
+                    for (int index = change.getFrom(); index < change.getTo(); index++) {
+                        updatedIndices.add(index);
+                    }
+                }
+            }
+        });
+
+        second.set(5);
+
+        assertEquals(List.of(0.5, 2.5), mappedList);
+        assertEquals(2.5, mappedList.getDouble(1), 0);
+        assertEquals(List.of(1), updatedIndices);
+        assertArrayEquals(new float[] { 0.5f, 2.5f }, array.toArray(null), 0);
+    }
+
+    @Test
+    public void testListRemove() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final DoubleMappedList<Integer> mappedList = new DoubleMappedList<>(observableList, value -> value / 2.0);
+
+        final List<Double> actual = new ArrayList<>();
+        final ObservableFloatArray array = mappedList.toObservableArray();
+
+        Bindings.bindContent(actual, mappedList);
+
+        observableList.remove(1, 3);
+
+        assertEquals(List.of(1.5, 2.5), mappedList);
+        assertEquals(List.of(1.5, 2.5), actual);
+        assertArrayEquals(new double[] { 1.5, 2.5 }, mappedList.toDoubleArray(), 0);
+        assertArrayEquals(new float[] { 1.5f, 2.5f }, array.toArray(null), 0);
+
+        observableList.clear();
+
+        assertEquals(List.of(), actual);
+        assertEquals(0, array.size());
+    }
+
+    @Test
+    public void testObservableArrayOnlyCopiesChangedRange() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5, 9));
+        final DoubleMappedList<Integer> mappedList = new DoubleMappedList<>(observableList, value -> value / 2.0);
+
+        final ObservableFloatArray array = mappedList.toObservableArray();
+        final List<List<Integer>> changedRanges = new ArrayList<>();
+
+        array.addListener((observableArray, sizeChanged, from, to) -> changedRanges.add(List.of(from, to)));
+
+        observableList.set(3, 11);
+
+        assertArrayEquals(new float[] { 1.5f, 3.5f, 0.5f, 5.5f, 4.5f }, array.toArray(null), 0);
+        assertEquals(List.of(List.of(3, 4)), changedRanges);
+
+        changedRanges.clear();
+
+        // the values after the removed value are shifted
+        observableList.remove(2);
+
+        assertArrayEquals(new float[] { 1.5f, 3.5f, 5.5f, 4.5f }, array.toArray(null), 0);
+        assertEquals(List.of(2, 4), changedRanges.get(changedRanges.size() - 1));
+    }
+}
@@ -0,0 +1,299 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class FlatMappedListTest {
+    @Test
+    public void testListCreation() {
+        final Map<String, ObservableList<Integer>> innerLists = createInnerLists();
+
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("a", "b", "c"));
+        final FlatMappedList<Integer, String> flatMappedList = new FlatMappedList<>(observableList, innerLists::get);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, flatMappedList);
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), flatMappedList);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), actual);
+    }
+
+    @Test
+    public void testSourceAddRemove() {
+        final Map<String, ObservableList<Integer>> innerLists = createInnerLists();
+
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("a", "c"));
+        final FlatMappedList<Integer, String> flatMappedList = new FlatMappedList<>(observableList, innerLists::get);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, flatMappedList);
+
+        observableList.add(1, "b");
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), flatMappedList);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), actual);
+
+        observableList.remove(0, 2);
+
+        assertEquals(List.of(5, 6), flatMappedList);
+        assertEquals(List.of(5, 6), actual);
+
+        observableList.set(0, "a");
+
+        assertEquals(List.of(1, 2), flatMappedList);
+        assertEquals(List.of(1, 2), actual);
+    }
+
+    @Test
+    public void testInnerListChanges() {
+        final Map<String, ObservableList<Integer>> innerLists = createInnerLists();
+
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("a", "b", "c"));
+        final FlatMappedList<Integer, String> flatMappedList = new FlatMappedList<>(observableList, innerLists::get);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, flatMappedList);
+
+        innerLists.get("b").add(0, 10);
+        innerLists.get("a").remove(0);
+        innerLists.get("c").setAll(7);
+
+        assertEquals(List.of(2, 10, 3, 4, 7), flatMappedList);
+        assertEquals(List.of(2, 10, 3, 4, 7), actual);
+
+        FXCollections.sort(innerLists.get("b"));
+
+        assertEquals(List.of(2, 3, 4, 10, 7), flatMappedList);
+        assertEquals(List.of(2, 3, 4, 10, 7), actual);
+    }
+
+    @Test
+    public void testInnerListChangesAfterSourceInsert() {
+        final Map<String, ObservableList<Integer>> innerLists = createInnerLists();
+
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("b", "c"));
+        final FlatMappedList<Integer, String> flatMappedList = new FlatMappedList<>(observableList, innerLists::get);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, flatMappedList);
+
+        // inserting a list in front of the other lists moves their offsets
+        observableList.add(0, "a");
+
+        innerLists.get("c").add(7);
+        innerLists.get("b").remove(1);
+
+        assertEquals(List.of(1, 2, 3, 5, 6, 7), flatMappedList);
+        assertEquals(List.of(1, 2, 3, 5, 6, 7), actual);
+
+        // the removed list is no longer observed
+        observableList.remove("a");
+        innerLists.get("a").add(8);
+
+        assertEquals(List.of(3, 5, 6, 7), flatMappedList);
+        assertEquals(List.of(3, 5, 6, 7), actual);
+    }
+
+    @Test
+    public void testSourcePermutation() {
+        final Map<String, ObservableList<Integer>> innerLists = createInnerLists();
+
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("c", "a", "b"));
+        final FlatMappedList<Integer, String> flatMappedList = new FlatMappedList<>(observableList, innerLists::get);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, flatMappedList);
+
+        FXCollections.sort(observableList);
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), flatMappedList);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), actual);
+
+        innerLists.get("a").add(0);
+
+        assertEquals(List.of(1, 2, 0, 3, 4, 5, 6), flatMappedList);
+        assertEquals(List.of(1, 2, 0, 3, 4, 5, 6), actual);
+    }
+
+    @Test
+    public void testSourceUpdate() {
+        final Map<String, ObservableList<Integer>> innerLists = createInnerLists();
+
+        final StringProperty first = new SimpleStringProperty("a");
+        final StringProperty second = new SimpleStringProperty("b");
+
+        final ObservableList<StringProperty> observableList = FXCollections
+                .observableArrayList(property -> new Observable[] { property });
+        observableList.addAll(first, second);
+
+        final FlatMappedList<Integer, StringProperty> flatMappedList = new FlatMappedList<>(observableList,
+                property -> innerLists.get(property.get()));
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, flatMappedList);
+
+        first.set("c");
+
+        assertEquals(List.of(5, 6, 3, 4), flatMappedList);
+        assertEquals(List.of(5, 6, 3, 4), actual);
+
+        // the old inner list is no longer observed
+        innerLists.get("a").add(7);
+        innerLists.get("c").add(8);
+
+        assertEquals(List.of(5, 6, 8, 3, 4), flatMappedList);
+        assertEquals(List.of(5, 6, 8, 3, 4), actual);
+    }
+
+    @Test
+    public void testIndexTranslation() {
+        final Map<String, ObservableList<Integer>> innerLists = createInnerLists();
+        innerLists.put("empty", FXCollections.observableArrayList());
+
+        final ObservableList<String> observableList = FXCollections
+                .observableArrayList(List.of("a", "empty", "b", "c"));
+        final FlatMappedList<Integer, String> flatMappedList = new FlatMappedList<>(observableList, innerLists::get);
+
+        assertEquals(0, flatMappedList.getSourceIndex(1));
+        assertEquals(2, flatMappedList.getSourceIndex(2));
+        assertEquals(3, flatMappedList.getSourceIndex(4));
+
+        assertEquals(0, flatMappedList.getViewIndex(0));
+        assertEquals(2, flatMappedList.getViewIndex(1));
+        assertEquals(2, flatMappedList.getViewIndex(2));
+        assertEquals(4, flatMappedList.getViewIndex(3));
+    }
+
+    @Test
+    public void testSharedInnerList() {
+        final Map<String, ObservableList<Integer>> innerLists = createInnerLists();
+
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("a", "b", "a"));
+        final FlatMappedList<Integer, String> flatMappedList = new FlatMappedList<>(observableList, innerLists::get);
+
+        final List<Integer> actual = new ArrayList<>();
+        final List<List<Integer>> fired = new ArrayList<>();
+
+        Bindings.bindContent(actual, flatMappedList);
+
+        // every fired change needs to lead to the current values of the list
+        flatMappedList.addListener((ListChangeListener.Change<? extends Integer> change) -> fired
+                .add(List.copyOf(actual)));
+
+        innerLists.get("a").add(7);
+
+        assertEquals(List.of(1, 2, 7, 3, 4, 1, 2, 7), flatMappedList);
+        assertEquals(List.of(List.of(1, 2, 7, 3, 4, 1, 2, 7)), fired);
+
+        innerLists.get("a").remove(0, 2);
+
+        assertEquals(List.of(7, 3, 4, 7), flatMappedList);
+        assertEquals(List.of(7, 3, 4, 7), fired.get(1));
+
+        innerLists.get("a").setAll(9, 8);
+        FXCollections.sort(innerLists.get("a"));
+
+        assertEquals(List.of(8, 9, 3, 4, 8, 9), flatMappedList);
+        assertEquals(List.of(8, 9, 3, 4, 8, 9), actual);
+        assertEquals(4, fired.size());
+
+        // the inner list is observed until its last occurrence has been removed
+        observableList.remove(0);
+        innerLists.get("a").add(1);
+
+        assertEquals(List.of(3, 4, 8, 9, 1), flatMappedList);
+        assertEquals(List.of(3, 4, 8, 9, 1), actual);
+
+        observableList.remove(1);
+        innerLists.get("a").add(2);
+
+        assertEquals(List.of(3, 4), flatMappedList);
+        assertEquals(List.of(3, 4), actual);
+    }
+
+    @Test
+    public void testRandomChanges() {
+        final Random random = new Random(42);
+
+        final List<ObservableList<Integer>> innerLists = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            innerLists.add(FXCollections.observableArrayList(
+                    random.ints(random.nextInt(5), 0, 100).boxed().collect(Collectors.toList())));
+        }
+
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList();
+        final FlatMappedList<Integer, Integer> flatMappedList = new FlatMappedList<>(observableList,
+                innerLists::get);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, flatMappedList);
+
+        for (int step = 0; step < 500; step++) {
+            final int size = observableList.size();
+
+            switch (random.nextInt(5)) {
+                case 0:
+                    observableList.add(random.nextInt(size + 1), random.nextInt(innerLists.size()));
+                    break;
+                case 1:
+                    if (size > 0) {
+                        observableList.remove(random.nextInt(size));
+                    }
+                    break;
+                case 2:
+                    if (size > 1) {
+                        FXCollections.shuffle(observableList, random);
+                    }
+                    break;
+                default:
+                    final ObservableList<Integer> innerList = innerLists.get(random.nextInt(innerLists.size()));
+
+                    if (innerList.isEmpty() || random.nextBoolean()) {
+                        innerList.add(random.nextInt(innerList.size() + 1), random.nextInt(100));
+                    } else {
+                        innerList.remove(random.nextInt(innerList.size()));
+                    }
+                    break;
+            }
+
+            final List<Integer> expected = observableList.stream()
+                    .flatMap(index -> innerLists.get(index).stream())
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, flatMappedList);
+            assertEquals(expected, actual);
+        }
+    }
+
+    private Map<String, ObservableList<Integer>> createInnerLists() {
+        final Map<String, ObservableList<Integer>> innerLists = new HashMap<>();
+
+        innerLists.put("a", FXCollections.observableArrayList(1, 2));
+        innerLists.put("b", FXCollections.observableArrayList(3, 4));
+        innerLists.put("c", FXCollections.observableArrayList(5, 6));
+
+        return innerLists;
+    }
+}
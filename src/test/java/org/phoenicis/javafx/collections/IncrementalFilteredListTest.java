@@ -0,0 +1,279 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class IncrementalFilteredListTest {
+    @Test
+    public void testListCreation() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 8, 1, 6, 5));
+        final IncrementalFilteredList<Integer> filteredList = new IncrementalFilteredList<>(observableList,
+                value -> value % 2 == 1);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, filteredList);
+
+        assertEquals(List.of(3, 1, 5), filteredList);
+        assertEquals(List.of(3, 1, 5), actual);
+    }
+
+    @Test
+    public void testListWithoutPredicate() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 8, 1, 6, 5));
+        final IncrementalFilteredList<Integer> filteredList = new IncrementalFilteredList<>(observableList);
+
+        assertEquals(List.of(3, 8, 1, 6, 5), filteredList);
+    }
+
+    @Test
+    public void testListAddRemove() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 8, 1, 6, 5));
+        final IncrementalFilteredList<Integer> filteredList = new IncrementalFilteredList<>(observableList,
+                value -> value % 2 == 1);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, filteredList);
+
+        observableList.addAll(2, List.of(7, 4, 9));
+
+        assertEquals(List.of(3, 7, 9, 1, 5), filteredList);
+        assertEquals(List.of(3, 7, 9, 1, 5), actual);
+
+        observableList.remove(1, 4);
+
+        assertEquals(List.of(3, 9, 1, 5), filteredList);
+        assertEquals(List.of(3, 9, 1, 5), actual);
+
+        observableList.set(0, 2);
+
+        assertEquals(List.of(9, 1, 5), filteredList);
+        assertEquals(List.of(9, 1, 5), actual);
+
+        observableList.add(11);
+
+        assertEquals(List.of(9, 1, 5, 11), filteredList);
+        assertEquals(List.of(9, 1, 5, 11), actual);
+    }
+
+    @Test
+    public void testListPermutation() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 8, 1, 6, 5));
+        final IncrementalFilteredList<Integer> filteredList = new IncrementalFilteredList<>(observableList,
+                value -> value % 2 == 1);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, filteredList);
+
+        FXCollections.sort(observableList);
+
+        assertEquals(List.of(1, 3, 5), filteredList);
+        assertEquals(List.of(1, 3, 5), actual);
+
+        FXCollections.sort(observableList, Comparator.reverseOrder());
+
+        assertEquals(List.of(5, 3, 1), filteredList);
+        assertEquals(List.of(5, 3, 1), actual);
+    }
+
+    @Test
+    public void testListUpdate() {
+        final IntegerProperty first = new SimpleIntegerProperty(3);
+        final IntegerProperty second = new SimpleIntegerProperty(8);
+        final IntegerProperty third = new SimpleIntegerProperty(5);
+
+        final ObservableList<IntegerProperty> observableList = FXCollections
+                .observableArrayList(property -> new Observable[] { property });
+        observableList.addAll(first, second, third);
+
+        final IncrementalFilteredList<IntegerProperty> filteredList = new IncrementalFilteredList<>(observableList,
+                property -> property.get() % 2 == 1);
+
+        final List<IntegerProperty> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, filteredList);
+
+        assertEquals(List.of(first, third), actual);
+
+        second.set(7);
+
+        assertEquals(List.of(first, second, third), filteredList);
+        assertEquals(List.of(first, second, third), actual);
+
+        first.set(4);
+
+        assertEquals(List.of(second, third), filteredList);
+        assertEquals(List.of(second, third), actual);
+
+        third.set(9);
+
+        assertEquals(List.of(second, third), filteredList);
+        assertEquals(List.of(second, third), actual);
+    }
+
+    @Test
+    public void testIndexTranslation() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 8, 1, 6, 5));
+        final IncrementalFilteredList<Integer> filteredList = new IncrementalFilteredList<>(observableList,
+                value -> value % 2 == 1);
+
+        assertEquals(0, filteredList.getSourceIndex(0));
+        assertEquals(2, filteredList.getSourceIndex(1));
+        assertEquals(4, filteredList.getSourceIndex(2));
+
+        assertEquals(0, filteredList.getViewIndex(0));
+        assertEquals(-1, filteredList.getViewIndex(1));
+        assertEquals(1, filteredList.getViewIndex(2));
+        assertEquals(-1, filteredList.getViewIndex(3));
+        assertEquals(2, filteredList.getViewIndex(4));
+    }
+
+    @Test
+    public void testPredicateChange() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 8, 1, 6, 5));
+        final IncrementalFilteredList<Integer> filteredList = new IncrementalFilteredList<>(observableList,
+                value -> value % 2 == 1);
+
+        final List<Integer> actual = new ArrayList<>();
+        final AtomicInteger changedElements = new AtomicInteger();
+
+        Bindings.bindContent(actual, filteredList);
+
+        filteredList.addListener((ListChangeListener.Change<? extends Integer> change) -> {
+            while (change.next()) {
+                changedElements.addAndGet(change.getRemovedSize() + change.getAddedSize());
+            }
+        });
+
+        filteredList.setPredicate(value -> value < 6);
+
+        assertEquals(List.of(3, 1, 5), filteredList);
+        assertEquals(List.of(3, 1, 5), actual);
+        assertEquals(0, changedElements.get());
+
+        filteredList.setPredicate(value -> value > 2);
+
+        // only 1 and 8, 6 flip their state
+        assertEquals(List.of(3, 8, 6, 5), filteredList);
+        assertEquals(List.of(3, 8, 6, 5), actual);
+        assertEquals(3, changedElements.get());
+
+        filteredList.setPredicate(null);
+
+        assertEquals(List.of(3, 8, 1, 6, 5), filteredList);
+        assertEquals(List.of(3, 8, 1, 6, 5), actual);
+    }
+
+    @Test
+    public void testDeferredPredicateChange() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 8, 1, 6, 5));
+        final IncrementalFilteredList<Integer> filteredList = new IncrementalFilteredList<>(observableList,
+                value -> value % 2 == 1);
+
+        final List<Runnable> scheduled = new ArrayList<>();
+        final List<Integer> actual = new ArrayList<>();
+        final AtomicInteger changes = new AtomicInteger();
+
+        Bindings.bindContent(actual, filteredList);
+
+        filteredList.addListener((ListChangeListener.Change<? extends Integer> change) -> changes.incrementAndGet());
+        filteredList.setChangeScheduler(scheduled::add);
+
+        filteredList.setPredicate(value -> value > 2);
+        observableList.add(9);
+
+        // the predicate change is merged into the deferred change
+        assertEquals(List.of(3, 8, 6, 5, 9), filteredList);
+        assertEquals(List.of(3, 1, 5), actual);
+        assertEquals(0, changes.get());
+        assertEquals(1, scheduled.size());
+
+        scheduled.forEach(Runnable::run);
+
+        assertEquals(1, changes.get());
+        assertEquals(List.of(3, 8, 6, 5, 9), actual);
+    }
+
+    @Test
+    public void testRandomChangesMatchFilteredList() {
+        final Random random = new Random(42);
+
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList();
+        for (int i = 0; i < 200; i++) {
+            observableList.add(random.nextInt(100));
+        }
+
+        final Predicate<Integer> even = value -> value % 2 == 0;
+        final Predicate<Integer> small = value -> value < 30;
+
+        final IncrementalFilteredList<Integer> filteredList = new IncrementalFilteredList<>(observableList, even);
+        final FilteredList<Integer> expected = new FilteredList<>(observableList, even);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, filteredList);
+
+        for (int step = 0; step < 500; step++) {
+            final int size = observableList.size();
+
+            switch (random.nextInt(6)) {
+                case 0:
+                    observableList.add(random.nextInt(size + 1), random.nextInt(100));
+                    break;
+                case 1:
+                    if (size > 0) {
+                        final int from = random.nextInt(size);
+
+                        observableList.remove(from, Math.min(size, from + random.nextInt(5) + 1));
+                    }
+                    break;
+                case 2:
+                    if (size > 0) {
+                        observableList.set(random.nextInt(size), random.nextInt(100));
+                    }
+                    break;
+                case 3:
+                    observableList.addAll(random.nextInt(size + 1),
+                            random.ints(random.nextInt(10), 0, 100).boxed().collect(Collectors.toList()));
+                    break;
+                case 4:
+                    if (random.nextInt(10) == 0) {
+                        FXCollections.sort(observableList);
+                    }
+                    break;
+                default:
+                    final Predicate<Integer> predicate = random.nextBoolean() ? even : small;
+
+                    filteredList.setPredicate(predicate);
+                    expected.setPredicate(predicate);
+                    break;
+            }
+
+            assertEquals(expected, filteredList);
+            assertEquals(expected, actual);
+        }
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getSourceIndex(i), filteredList.getSourceIndex(i));
+        }
+    }
+}
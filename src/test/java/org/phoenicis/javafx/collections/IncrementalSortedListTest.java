@@ -0,0 +1,258 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalSortedListTest {
+    @Test
+    public void testListCreation() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final IncrementalSortedList<Integer> sortedList = new IncrementalSortedList<>(observableList,
+                Comparator.naturalOrder());
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, sortedList);
+
+        assertEquals(List.of(1, 3, 5, 7), sortedList);
+        assertEquals(List.of(1, 3, 5, 7), actual);
+    }
+
+    @Test
+    public void testListWithoutComparator() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final IncrementalSortedList<Integer> sortedList = new IncrementalSortedList<>(observableList);
+
+        assertEquals(List.of(3, 7, 1, 5), sortedList);
+    }
+
+    @Test
+    public void testListAddRemove() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final IncrementalSortedList<Integer> sortedList = new IncrementalSortedList<>(observableList,
+                Comparator.naturalOrder());
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, sortedList);
+
+        observableList.addAll(1, List.of(6, 0));
+
+        assertEquals(List.of(0, 1, 3, 5, 6, 7), sortedList);
+        assertEquals(List.of(0, 1, 3, 5, 6, 7), actual);
+
+        observableList.remove(0, 3);
+
+        assertEquals(List.of(1, 5, 7), sortedList);
+        assertEquals(List.of(1, 5, 7), actual);
+
+        observableList.set(1, 8);
+
+        assertEquals(List.of(5, 7, 8), sortedList);
+        assertEquals(List.of(5, 7, 8), actual);
+    }
+
+    @Test
+    public void testStability() {
+        final ObservableList<String> observableList = FXCollections
+                .observableArrayList(List.of("b1", "a1", "b2", "a2", "b3"));
+        final IncrementalSortedList<String> sortedList = new IncrementalSortedList<>(observableList,
+                Comparator.comparing(value -> value.charAt(0)));
+
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, sortedList);
+
+        assertEquals(List.of("a1", "a2", "b1", "b2", "b3"), sortedList);
+
+        observableList.add(0, "b0");
+        observableList.add("a3");
+
+        assertEquals(List.of("a1", "a2", "a3", "b0", "b1", "b2", "b3"), sortedList);
+        assertEquals(List.of("a1", "a2", "a3", "b0", "b1", "b2", "b3"), actual);
+
+        // reversing the source list reverses the order of equal values
+        FXCollections.reverse(observableList);
+
+        assertEquals(List.of("a3", "a2", "a1", "b3", "b2", "b1", "b0"), sortedList);
+        assertEquals(List.of("a3", "a2", "a1", "b3", "b2", "b1", "b0"), actual);
+    }
+
+    @Test
+    public void testListUpdate() {
+        final IntegerProperty first = new SimpleIntegerProperty(3);
+        final IntegerProperty second = new SimpleIntegerProperty(7);
+        final IntegerProperty third = new SimpleIntegerProperty(5);
+
+        final ObservableList<IntegerProperty> observableList = FXCollections
+                .observableArrayList(property -> new Observable[] { property });
+        observableList.addAll(first, second, third);
+
+        final IncrementalSortedList<IntegerProperty> sortedList = new IncrementalSortedList<>(observableList,
+                Comparator.comparingInt(IntegerProperty::get));
+
+        final List<IntegerProperty> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, sortedList);
+
+        assertEquals(List.of(first, third, second), actual);
+
+        second.set(1);
+
+        assertEquals(List.of(second, first, third), sortedList);
+        assertEquals(List.of(second, first, third), actual);
+
+        third.set(4);
+
+        assertEquals(List.of(second, first, third), sortedList);
+        assertEquals(List.of(second, first, third), actual);
+    }
+
+    @Test
+    public void testIndexTranslation() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final IncrementalSortedList<Integer> sortedList = new IncrementalSortedList<>(observableList,
+                Comparator.naturalOrder());
+
+        for (int i = 0; i < observableList.size(); i++) {
+            assertEquals(observableList.get(sortedList.getSourceIndex(i)), sortedList.get(i));
+            assertEquals(observableList.get(i), sortedList.get(sortedList.getViewIndex(i)));
+        }
+    }
+
+    @Test
+    public void testComparatorChange() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final IncrementalSortedList<Integer> sortedList = new IncrementalSortedList<>(observableList,
+                Comparator.naturalOrder());
+
+        final List<Integer> actual = new ArrayList<>();
+        final AtomicInteger changes = new AtomicInteger();
+
+        Bindings.bindContent(actual, sortedList);
+
+        sortedList.addListener((ListChangeListener.Change<? extends Integer> change) -> {
+            changes.incrementAndGet();
+
+            while (change.next()) {
+                assertTrue(change.wasPermutated());
+            }
+        });
+
+        sortedList.setComparator(Comparator.reverseOrder());
+
+        assertEquals(List.of(7, 5, 3, 1), sortedList);
+        assertEquals(List.of(7, 5, 3, 1), actual);
+        assertEquals(1, changes.get());
+
+        sortedList.setComparator(null);
+
+        assertEquals(List.of(3, 7, 1, 5), sortedList);
+        assertEquals(List.of(3, 7, 1, 5), actual);
+        assertEquals(2, changes.get());
+    }
+
+    @Test
+    public void testDeferredComparatorChange() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final IncrementalSortedList<Integer> sortedList = new IncrementalSortedList<>(observableList,
+                Comparator.naturalOrder());
+
+        final List<Runnable> scheduled = new ArrayList<>();
+        final List<Integer> actual = new ArrayList<>();
+        final AtomicInteger changes = new AtomicInteger();
+
+        Bindings.bindContent(actual, sortedList);
+
+        sortedList.addListener((ListChangeListener.Change<? extends Integer> change) -> changes.incrementAndGet());
+        sortedList.setChangeScheduler(scheduled::add);
+
+        sortedList.setComparator(Comparator.reverseOrder());
+        sortedList.setComparator(Comparator.comparing(value -> value % 3));
+
+        // both comparator changes are merged into the deferred change
+        assertEquals(List.of(3, 7, 1, 5), sortedList);
+        assertEquals(List.of(1, 3, 5, 7), actual);
+        assertEquals(0, changes.get());
+        assertEquals(1, scheduled.size());
+
+        scheduled.forEach(Runnable::run);
+
+        assertEquals(1, changes.get());
+        assertEquals(List.of(3, 7, 1, 5), actual);
+    }
+
+    @Test
+    public void testRandomChangesMatchStableSort() {
+        final Random random = new Random(42);
+
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList();
+        for (int i = 0; i < 200; i++) {
+            observableList.add(random.nextInt(50));
+        }
+
+        final Comparator<Integer> byTens = Comparator.comparingInt(value -> value / 10);
+
+        final IncrementalSortedList<Integer> sortedList = new IncrementalSortedList<>(observableList, byTens);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, sortedList);
+
+        for (int step = 0; step < 500; step++) {
+            final int size = observableList.size();
+
+            switch (random.nextInt(6)) {
+                case 0:
+                    observableList.add(random.nextInt(size + 1), random.nextInt(50));
+                    break;
+                case 1:
+                    if (size > 0) {
+                        final int from = random.nextInt(size);
+
+                        observableList.remove(from, Math.min(size, from + random.nextInt(5) + 1));
+                    }
+                    break;
+                case 2:
+                    if (size > 0) {
+                        observableList.set(random.nextInt(size), random.nextInt(50));
+                    }
+                    break;
+                case 3:
+                    observableList.addAll(random.nextInt(size + 1),
+                            random.ints(random.nextInt(10), 0, 50).boxed().collect(Collectors.toList()));
+                    break;
+                case 4:
+                    if (random.nextInt(10) == 0) {
+                        FXCollections.shuffle(observableList, random);
+                    }
+                    break;
+                default:
+                    sortedList.setComparator(random.nextBoolean() ? byTens : byTens.reversed());
+                    break;
+            }
+
+            final List<Integer> expected = new ArrayList<>(observableList);
+            expected.sort(sortedList.getComparator());
+
+            assertEquals(expected, sortedList);
+            assertEquals(expected, actual);
+        }
+    }
+}
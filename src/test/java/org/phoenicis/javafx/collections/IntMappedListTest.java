@@ -0,0 +1,197 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableIntegerArray;
+import javafx.collections.ObservableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class IntMappedListTest {
+    @Test
+    public void testListCreation() {
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("a", "bb", "ccc"));
+        final IntMappedList<String> mappedList = new IntMappedList<>(observableList, String::length);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        assertEquals(List.of(1, 2, 3), mappedList);
+        assertEquals(List.of(1, 2, 3), actual);
+        assertEquals(2, mappedList.getInt(1));
+    }
+
+    @Test
+    public void testListAddRemove() {
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("a", "bb", "ccc"));
+        final IntMappedList<String> mappedList = new IntMappedList<>(observableList, String::length);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        observableList.addAll(1, List.of("dddd", "eeeee"));
+
+        assertEquals(List.of(1, 4, 5, 2, 3), mappedList);
+        assertEquals(List.of(1, 4, 5, 2, 3), actual);
+
+        observableList.remove(0, 2);
+
+        assertEquals(List.of(5, 2, 3), mappedList);
+        assertEquals(List.of(5, 2, 3), actual);
+
+        observableList.set(1, "ffffff");
+
+        assertEquals(List.of(5, 6, 3), mappedList);
+        assertEquals(List.of(5, 6, 3), actual);
+        assertArrayEquals(new int[] { 5, 6, 3 }, mappedList.toIntArray());
+    }
+
+    @Test
+    public void testListPermutation() {
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("bb", "ccc", "a"));
+        final IntMappedList<String> mappedList = new IntMappedList<>(observableList, String::length);
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        FXCollections.sort(observableList);
+
+        assertEquals(List.of(1, 2, 3), mappedList);
+        assertEquals(List.of(1, 2, 3), actual);
+    }
+
+    @Test
+    public void testListUpdate() {
+        final StringProperty first = new SimpleStringProperty("a");
+        final StringProperty second = new SimpleStringProperty("bb");
+
+        final ObservableList<StringProperty> observableList = FXCollections
+                .observableArrayList(property -> new Observable[] { property });
+        observableList.addAll(first, second);
+
+        final IntMappedList<StringProperty> mappedList = new IntMappedList<>(observableList,
+                property -> property.get().length());
+
+        final List<Integer> updatedIndices = new ArrayList<>();
+
+        mappedList.addListener((ListChangeListener.Change<? extends Integer> change) -> {
+            while (change.next()) {
+                if (change.wasUpdated()) {
+                    for (int index = change.getFrom(); index < change.getTo(); index++) {
+                        updatedIndices.add(index);
+                    }
+                }
+            }
+        });
+
+        second.set("dddd");
+
+        assertEquals(List.of(1, 4), mappedList);
+        assertEquals(List.of(1), updatedIndices);
+    }
+
+    @Test
+    public void testObservableArray() {
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("a", "bb"));
+        final IntMappedList<String> mappedList = new IntMappedList<>(observableList, String::length);
+
+        final ObservableIntegerArray array = mappedList.toObservableArray();
+
+        assertArrayEquals(new int[] { 1, 2 }, array.toArray(null));
+
+        observableList.add(0, "ccc");
+
+        assertArrayEquals(new int[] { 3, 1, 2 }, array.toArray(null));
+
+        observableList.clear();
+
+        assertEquals(0, array.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetIntOutOfBounds() {
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("a", "bb"));
+        final IntMappedList<String> mappedList = new IntMappedList<>(observableList, String::length);
+
+        observableList.remove(1);
+
+        // the index is still inside of the primitive array, but not inside of the list
+        mappedList.getInt(1);
+    }
+
+    @Test
+    public void testRandomChanges() {
+        final Random random = new Random(42);
+
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList();
+        final IntMappedList<Integer> mappedList = new IntMappedList<>(observableList, value -> value * 2);
+
+        final List<Integer> actual = new ArrayList<>();
+        final ObservableIntegerArray array = mappedList.toObservableArray();
+
+        Bindings.bindContent(actual, mappedList);
+
+        for (int step = 0; step < 500; step++) {
+            final int size = observableList.size();
+
+            switch (random.nextInt(4)) {
+                case 0:
+                    observableList.addAll(random.nextInt(size + 1),
+                            random.ints(random.nextInt(10), 0, 100).boxed().collect(Collectors.toList()));
+                    break;
+                case 1:
+                    if (size > 0) {
+                        final int from = random.nextInt(size);
+
+                        observableList.remove(from, Math.min(size, from + random.nextInt(5) + 1));
+                    }
+                    break;
+                case 2:
+                    if (size > 0) {
+                        observableList.set(random.nextInt(size), random.nextInt(100));
+                    }
+                    break;
+                default:
+                    FXCollections.shuffle(observableList, random);
+                    break;
+            }
+
+            final List<Integer> expected = observableList.stream().map(value -> value * 2)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, mappedList);
+            assertEquals(expected, actual);
+            assertArrayEquals(mappedList.toIntArray(), array.toArray(null));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetSourceIndexOutOfBounds() {
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("a", "bb"));
+        final IntMappedList<String> mappedList = new IntMappedList<>(observableList, String::length);
+
+        mappedList.getSourceIndex(2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetViewIndexOutOfBounds() {
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("a", "bb"));
+        final IntMappedList<String> mappedList = new IntMappedList<>(observableList, String::length);
+
+        mappedList.getViewIndex(-1);
+    }
+}
@@ -0,0 +1,248 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.beans.binding.Bindings;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class LazyMappedListTest {
+    @Test
+    public void testListCreation() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final AtomicInteger mapperCalls = new AtomicInteger();
+        final LazyMappedList<String, Integer> mappedList = new LazyMappedList<>(observableList, value -> {
+            mapperCalls.incrementAndGet();
+
+            return String.valueOf(value);
+        });
+
+        assertEquals(4, mappedList.size());
+        assertEquals(0, mapperCalls.get());
+
+        assertEquals("7", mappedList.get(1));
+        assertEquals("7", mappedList.get(1));
+        assertEquals(1, mapperCalls.get());
+
+        assertEquals(List.of("3", "7", "1", "5"), mappedList);
+        assertEquals(4, mapperCalls.get());
+    }
+
+    @Test
+    public void testEviction() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final AtomicInteger mapperCalls = new AtomicInteger();
+        final LazyMappedList<String, Integer> mappedList = new LazyMappedList<>(observableList, value -> {
+            mapperCalls.incrementAndGet();
+
+            return String.valueOf(value);
+        }, CachePolicy.leastRecentlyUsed(2));
+
+        mappedList.get(0);
+        mappedList.get(1);
+        mappedList.get(0);
+        mappedList.get(2);
+
+        assertEquals(3, mapperCalls.get());
+
+        // index 1 was the least recently used value
+        mappedList.get(0);
+        mappedList.get(2);
+
+        assertEquals(3, mapperCalls.get());
+
+        mappedList.get(1);
+
+        assertEquals(4, mapperCalls.get());
+    }
+
+    @Test
+    public void testListAddRemove() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final LazyMappedList<String, Integer> mappedList = new LazyMappedList<>(observableList, String::valueOf,
+                CachePolicy.leastRecentlyUsed(2));
+
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        assertEquals(List.of("3", "7", "1", "5"), actual);
+
+        observableList.addAll(1, List.of(8, 9));
+
+        assertEquals(List.of("3", "8", "9", "7", "1", "5"), mappedList);
+        assertEquals(List.of("3", "8", "9", "7", "1", "5"), actual);
+
+        observableList.removeAll(3, 9, 1);
+
+        assertEquals(List.of("8", "7", "5"), mappedList);
+        assertEquals(List.of("8", "7", "5"), actual);
+
+        observableList.set(1, 4);
+
+        assertEquals(List.of("8", "4", "5"), mappedList);
+        assertEquals(List.of("8", "4", "5"), actual);
+    }
+
+    @Test
+    public void testCachedValuesShiftOnAdd() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final AtomicInteger mapperCalls = new AtomicInteger();
+        final LazyMappedList<String, Integer> mappedList = new LazyMappedList<>(observableList, value -> {
+            mapperCalls.incrementAndGet();
+
+            return String.valueOf(value);
+        });
+
+        assertEquals("1", mappedList.get(2));
+
+        observableList.add(0, 0);
+
+        assertEquals("1", mappedList.get(3));
+        assertEquals(1, mapperCalls.get());
+    }
+
+    @Test
+    public void testListPermutation() {
+        final SortedList<Integer> sortedList = FXCollections.observableArrayList(List.of(3, 7, 1, 5))
+                .sorted(Comparator.naturalOrder());
+        final LazyMappedList<String, Integer> mappedList = new LazyMappedList<>(sortedList, String::valueOf,
+                CachePolicy.softReferences(3));
+
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        assertEquals(List.of("1", "3", "5", "7"), mappedList);
+        assertEquals(List.of("1", "3", "5", "7"), actual);
+
+        sortedList.comparatorProperty().set(Comparator.comparing(String::valueOf).reversed());
+
+        assertEquals(List.of("7", "5", "3", "1"), mappedList);
+        assertEquals(List.of("7", "5", "3", "1"), actual);
+    }
+
+    @Test
+    public void testRandomChanges() {
+        final Random random = new Random(7);
+
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList();
+        final LazyMappedList<Integer, Integer> mappedList = new LazyMappedList<>(observableList, value -> value * 2,
+                CachePolicy.leastRecentlyUsed(8));
+
+        final List<Integer> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        for (int step = 0; step < 500; step++) {
+            final int size = observableList.size();
+
+            switch (random.nextInt(4)) {
+                case 0:
+                    observableList.addAll(random.nextInt(size + 1),
+                            random.ints(random.nextInt(5), 0, 100).boxed().collect(Collectors.toList()));
+                    break;
+                case 1:
+                    if (size > 0) {
+                        final int from = random.nextInt(size);
+
+                        observableList.remove(from, Math.min(size, from + random.nextInt(3) + 1));
+                    }
+                    break;
+                case 2:
+                    if (size > 0) {
+                        observableList.set(random.nextInt(size), random.nextInt(100));
+                    }
+                    break;
+                default:
+                    FXCollections.shuffle(observableList, random);
+                    break;
+            }
+
+            // read some values to fill the cache
+            for (int read = 0; read < 3 && !observableList.isEmpty(); read++) {
+                final int index = random.nextInt(observableList.size());
+
+                assertEquals(observableList.get(index) * 2, (int) mappedList.get(index));
+            }
+
+            final List<Integer> expected = observableList.stream().map(value -> value * 2)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, mappedList);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testCachedValuesBeforeChangeAreKept() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final AtomicInteger mapperCalls = new AtomicInteger();
+        final LazyMappedList<String, Integer> mappedList = new LazyMappedList<>(observableList, value -> {
+            mapperCalls.incrementAndGet();
+
+            return String.valueOf(value);
+        });
+
+        assertEquals("3", mappedList.get(0));
+        assertEquals("1", mappedList.get(2));
+
+        observableList.remove(1);
+        observableList.add(8);
+
+        // only the removed value, which is not cached, is mapped to report it
+        assertEquals(3, mapperCalls.get());
+
+        // neither the cached value before nor after the changes is mapped again
+        assertEquals("3", mappedList.get(0));
+        assertEquals("1", mappedList.get(1));
+        assertEquals(3, mapperCalls.get());
+    }
+
+    @Test
+    public void testRemovedValuesAreMappedToReportThem() {
+        final ObservableList<Integer> observableList = FXCollections
+                .observableArrayList(IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+        final AtomicInteger mapperCalls = new AtomicInteger();
+        final LazyMappedList<String, Integer> mappedList = new LazyMappedList<>(observableList, value -> {
+            mapperCalls.incrementAndGet();
+
+            return String.valueOf(value);
+        }, CachePolicy.leastRecentlyUsed(2));
+
+        final List<String> removed = new ArrayList<>();
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> {
+            while (change.next()) {
+                removed.addAll(change.getRemoved());
+            }
+        });
+
+        mappedList.get(0);
+        mappedList.get(1);
+
+        mapperCalls.set(0);
+
+        // the change builder copies all removed values, therefore every removed value, which is not cached, is mapped
+        observableList.setAll(100, 101);
+
+        assertEquals(98, mapperCalls.get());
+        assertEquals(IntStream.range(0, 100).mapToObj(String::valueOf).collect(Collectors.toList()), removed);
+
+        // the added values are still mapped lazily
+        assertEquals(98, mapperCalls.get());
+        assertEquals("101", mappedList.get(1));
+        assertEquals(99, mapperCalls.get());
+    }
+}
@@ -0,0 +1,119 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class LongMappedListTest {
+    @Test
+    public void testListChanges() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1));
+        final LongMappedList<Integer> mappedList = new LongMappedList<>(observableList,
+                value -> value * 10_000_000_000L);
+
+        final List<Long> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        assertEquals(List.of(30_000_000_000L, 70_000_000_000L, 10_000_000_000L), actual);
+        assertEquals(70_000_000_000L, mappedList.getLong(1));
+
+        observableList.add(1, 2);
+        observableList.remove(Integer.valueOf(7));
+        FXCollections.sort(observableList);
+
+        assertEquals(List.of(10_000_000_000L, 20_000_000_000L, 30_000_000_000L), mappedList);
+        assertEquals(List.of(10_000_000_000L, 20_000_000_000L, 30_000_000_000L), actual);
+        assertArrayEquals(new long[] { 10_000_000_000L, 20_000_000_000L, 30_000_000_000L },
+                mappedList.toLongArray());
+    }
+
+    @Test
+    public void testListPermutation() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1));
+        final LongMappedList<Integer> mappedList = new LongMappedList<>(observableList, value -> value * 10L);
+
+        final List<Long> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        FXCollections.sort(observableList);
+
+        assertEquals(List.of(10L, 30L, 70L), mappedList);
+        assertEquals(List.of(10L, 30L, 70L), actual);
+        assertEquals(30L, mappedList.getLong(1));
+    }
+
+    @Test
+    public void testListUpdate() {
+        final IntegerProperty first = new SimpleIntegerProperty(1);
+        final IntegerProperty second = new SimpleIntegerProperty(2);
+
+        final ObservableList<IntegerProperty> observableList = FXCollections
+                .observableArrayList(property -> new Observable[] { property });
+        observableList.addAll(first, second);
+
+        final LongMappedList<IntegerProperty> mappedList = new LongMappedList<>(observableList,
+                property -> property.get() * 10L);
+
+        final List<Integer> updatedIndices = new ArrayList<>();
+
+        mappedList.addListener((ListChangeListener.Change<? extends Long> change) -> {
+            while (change.next()) {
+                if (change.wasUpdated()) {
+                    for (int index = change.getFrom(); index < change.getTo(); index++) {
+                        updatedIndices.add(index);
+                    }
+                }
+            }
+        });
+
+        second.set(5);
+
+        assertEquals(List.of(10L, 50L), mappedList);
+        assertEquals(50L, mappedList.getLong(1));
+        assertEquals(List.of(1), updatedIndices);
+    }
+
+    @Test
+    public void testListRemove() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final LongMappedList<Integer> mappedList = new LongMappedList<>(observableList, value -> value * 10L);
+
+        final List<Long> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        observableList.remove(1, 3);
+
+        assertEquals(List.of(30L, 50L), mappedList);
+        assertEquals(List.of(30L, 50L), actual);
+        assertArrayEquals(new long[] { 30L, 50L }, mappedList.toLongArray());
+
+        observableList.clear();
+
+        assertEquals(List.of(), mappedList);
+        assertEquals(List.of(), actual);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetLongOutOfBounds() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7));
+        final LongMappedList<Integer> mappedList = new LongMappedList<>(observableList, value -> value * 10L);
+
+        observableList.remove(1);
+
+        mappedList.getLong(1);
+    }
+}
@@ -1,17 +1,41 @@
 package org.phoenicis.javafx.collections;
 
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
 import javafx.collections.transformation.SortedList;
 import org.junit.Test;
 
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class MappedListTest {
     @Test
@@ -153,4 +177,830 @@ public class MappedListTest {
         assertEquals(List.of("3", "7", "1", "5"), mappedList);
         assertEquals(List.of("3", "7", "1", "5"), actual);
     }
+
+    @Test
+    public void testListAddAllInTheMiddle() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, String::valueOf);
+
+        final List<String> actual = new ArrayList<>();
+        final List<Integer> subChanges = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> {
+            while (change.next()) {
+                subChanges.add(change.getAddedSize());
+            }
+        });
+
+        observableList.addAll(2, List.of(8, 9, 10));
+
+        assertEquals(List.of("3", "7", "8", "9", "10", "1", "5"), mappedList);
+        assertEquals(List.of("3", "7", "8", "9", "10", "1", "5"), actual);
+        assertEquals(List.of(3), subChanges);
+    }
+
+    @Test
+    public void testListReplaceRange() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5, 2));
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, String::valueOf);
+
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        observableList.removeAll(7, 5);
+
+        assertEquals(List.of("3", "1", "2"), mappedList);
+        assertEquals(List.of("3", "1", "2"), actual);
+
+        observableList.setAll(4, 6);
+
+        assertEquals(List.of("4", "6"), mappedList);
+        assertEquals(List.of("4", "6"), actual);
+    }
+
+    @Test
+    public void testParallelMapping() {
+        final ForkJoinPool executor = new ForkJoinPool(4);
+
+        try {
+            final ObservableList<Integer> observableList = FXCollections.observableArrayList();
+            final List<String> expected = new ArrayList<>();
+
+            for (int i = 0; i < 1000; i++) {
+                observableList.add(i);
+                expected.add(String.valueOf(i));
+            }
+
+            final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            final MappedList<String, Integer> mappedList = new MappedList<>(observableList, value -> {
+                threads.add(Thread.currentThread());
+
+                return String.valueOf(value);
+            }, 100, executor);
+
+            final List<String> actual = new ArrayList<>();
+
+            Bindings.bindContent(actual, mappedList);
+
+            assertEquals(expected, mappedList);
+            assertEquals(expected, actual);
+            assertTrue(threads.size() > 1);
+
+            // small changes are mapped sequentially
+            observableList.add(0, 1000);
+            expected.add(0, "1000");
+
+            assertEquals(expected, mappedList);
+            assertEquals(expected, actual);
+
+            mappedList.setMapper(value -> value + "!");
+
+            assertEquals(expected.stream().map(value -> value + "!").collect(Collectors.toList()), mappedList);
+            assertEquals(expected.stream().map(value -> value + "!").collect(Collectors.toList()), actual);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMapperChangeIsSingleReplacement() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, String::valueOf);
+
+        final List<String> removed = new ArrayList<>();
+        final List<String> added = new ArrayList<>();
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> {
+            assertTrue(change.next());
+            assertTrue(change.wasReplaced());
+
+            removed.addAll(change.getRemoved());
+            added.addAll(change.getAddedSubList());
+
+            assertFalse(change.next());
+        });
+
+        mappedList.setMapper(i -> i + "!");
+
+        assertEquals(List.of("3", "7", "1", "5"), removed);
+        assertEquals(List.of("3!", "7!", "1!", "5!"), added);
+    }
+
+    @Test
+    public void testMapperChangeWithEquivalence() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5, 8));
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, String::valueOf);
+
+        mappedList.setEquivalence(Objects::equals);
+
+        final List<String> actual = new ArrayList<>();
+        final List<Integer> replacedIndices = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> {
+            while (change.next()) {
+                assertTrue(change.wasReplaced());
+
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    replacedIndices.add(i);
+                }
+            }
+        });
+
+        // only the values of the odd numbers change
+        mappedList.setMapper(i -> i % 2 == 0 ? String.valueOf(i) : i + "!");
+
+        assertEquals(List.of("3!", "7!", "1!", "5!", "8"), mappedList);
+        assertEquals(List.of("3!", "7!", "1!", "5!", "8"), actual);
+        assertEquals(List.of(0, 1, 2, 3), replacedIndices);
+
+        replacedIndices.clear();
+
+        mappedList.setMapper(i -> i > 4 ? String.valueOf(i) : i + "!");
+
+        assertEquals(List.of("3!", "7", "1!", "5", "8"), mappedList);
+        assertEquals(List.of("3!", "7", "1!", "5", "8"), actual);
+        assertEquals(List.of(1, 3), replacedIndices);
+    }
+
+    @Test
+    public void testUpdateWithEquivalence() {
+        final IntegerProperty first = new SimpleIntegerProperty(1);
+        final IntegerProperty second = new SimpleIntegerProperty(7);
+
+        final ObservableList<IntegerProperty> observableList = FXCollections
+                .observableArrayList(property -> new Observable[] { property });
+        observableList.addAll(first, second);
+
+        final MappedList<String, IntegerProperty> mappedList = new MappedList<>(observableList,
+                property -> property.get() > 4 ? "large" : "small");
+
+        mappedList.setEquivalence(Objects::equals);
+
+        final List<Integer> updatedIndices = new ArrayList<>();
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> {
+            while (change.next()) {
+                assertTrue(change.wasUpdated());
+
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    updatedIndices.add(i);
+                }
+            }
+        });
+
+        // the mapped value does not change
+        first.set(2);
+
+        assertEquals(List.of("small", "large"), mappedList);
+        assertEquals(List.of(), updatedIndices);
+
+        first.set(5);
+
+        assertEquals(List.of("large", "large"), mappedList);
+        assertEquals(List.of(0), updatedIndices);
+
+        updatedIndices.clear();
+        mappedList.setEquivalence(null);
+
+        // without an equivalence every update is reported
+        second.set(8);
+
+        assertEquals(List.of("large", "large"), mappedList);
+        assertEquals(List.of(1), updatedIndices);
+    }
+
+    @Test
+    public void testUpdateRangesWithEquivalence() {
+        final UpdatableList updatableList = new UpdatableList(10, 11, 12, 13, 14, 15);
+        final MappedList<String, Integer> mappedList = new MappedList<>(updatableList, value -> "" + value / 10);
+
+        mappedList.setEquivalence(Objects::equals);
+
+        final List<List<Integer>> updatedRanges = new ArrayList<>();
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> {
+            while (change.next()) {
+                assertTrue(change.wasUpdated());
+
+                updatedRanges.add(List.of(change.getFrom(), change.getTo()));
+            }
+        });
+
+        updatableList.update(10, 21, 22, 13, 24, 15);
+
+        assertEquals(List.of("1", "2", "2", "1", "2", "1"), mappedList);
+        assertEquals(List.of(List.of(1, 3), List.of(4, 5)), updatedRanges);
+    }
+
+    @Test
+    public void testMoveDetectionOnSetAll() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(1000, 2000, 3000));
+        final AtomicInteger mapperCalls = new AtomicInteger();
+
+        final MappedList<StringBuilder, Integer> mappedList = new MappedList<>(observableList, value -> {
+            mapperCalls.incrementAndGet();
+
+            return new StringBuilder(String.valueOf(value));
+        });
+        mappedList.setMoveDetection(true);
+
+        final StringBuilder first = mappedList.get(0);
+        final StringBuilder third = mappedList.get(2);
+
+        final List<StringBuilder> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        mapperCalls.set(0);
+
+        // the same Integer instances are added again, only 4000 is new
+        observableList.setAll(observableList.get(2), 4000, observableList.get(0));
+
+        assertEquals(1, mapperCalls.get());
+        assertSame(third, mappedList.get(0));
+        assertSame(first, mappedList.get(2));
+        assertEquals("4000", mappedList.get(1).toString());
+        assertEquals(mappedList, actual);
+    }
+
+    @Test
+    public void testMoveDetectionAcrossSubChanges() {
+        final IntegerProperty first = new SimpleIntegerProperty(1);
+        final IntegerProperty second = new SimpleIntegerProperty(2);
+        final IntegerProperty third = new SimpleIntegerProperty(3);
+
+        final ObservableList<IntegerProperty> observableList = FXCollections
+                .observableArrayList(property -> new Observable[] { property });
+        observableList.addAll(first, second, third);
+
+        // moving an element inside of the sorted list results in a removal and an addition in the same change
+        final IncrementalSortedList<IntegerProperty> sortedList = new IncrementalSortedList<>(observableList,
+                Comparator.comparingInt(IntegerProperty::get));
+
+        final AtomicInteger mapperCalls = new AtomicInteger();
+        final MappedList<StringBuilder, IntegerProperty> mappedList = new MappedList<>(sortedList, property -> {
+            mapperCalls.incrementAndGet();
+
+            return new StringBuilder("value");
+        });
+
+        final StringBuilder firstValue = mappedList.get(0);
+
+        mappedList.setMoveDetection(true);
+        mapperCalls.set(0);
+
+        first.set(4);
+
+        assertEquals(0, mapperCalls.get());
+        assertSame(firstValue, mappedList.get(2));
+
+        mappedList.setMoveDetection(false);
+
+        first.set(0);
+
+        assertEquals(1, mapperCalls.get());
+        assertNotSame(firstValue, mappedList.get(0));
+    }
+
+    @Test
+    public void testMoveDetectionWithKey() {
+        final ObservableList<String> observableList = FXCollections.observableArrayList(List.of("a1", "b1", "c1"));
+
+        final MappedList<StringBuilder, String> mappedList = new MappedList<>(observableList, StringBuilder::new);
+        mappedList.setMoveDetection(true);
+        mappedList.setMoveKey(value -> value.charAt(0));
+
+        final StringBuilder second = mappedList.get(1);
+
+        observableList.setAll("b2", "d2");
+
+        // "b2" is matched with "b1" by its key and keeps the previously mapped value
+        assertSame(second, mappedList.get(0));
+        assertEquals("b1", mappedList.get(0).toString());
+        assertEquals("d2", mappedList.get(1).toString());
+    }
+
+    @Test
+    public void testDependencies() {
+        final IntegerProperty first = new SimpleIntegerProperty(1);
+        final IntegerProperty second = new SimpleIntegerProperty(2);
+        final IntegerProperty third = new SimpleIntegerProperty(3);
+
+        // the source list does not report updates of its values
+        final ObservableList<IntegerProperty> observableList = FXCollections.observableArrayList(first, second, third);
+
+        final AtomicInteger mapperCalls = new AtomicInteger();
+        final MappedList<String, IntegerProperty> mappedList = new MappedList<>(observableList, property -> {
+            mapperCalls.incrementAndGet();
+
+            return String.valueOf(property.get());
+        });
+
+        mappedList.setDependencies(property -> new Observable[] { property });
+
+        final List<Integer> updatedIndices = new ArrayList<>();
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> {
+            while (change.next()) {
+                if (change.wasUpdated()) {
+                    for (int i = change.getFrom(); i < change.getTo(); i++) {
+                        updatedIndices.add(i);
+                    }
+                }
+            }
+        });
+
+        mapperCalls.set(0);
+
+        // only the value depending on the changed property is mapped again
+        second.set(5);
+
+        assertEquals(List.of("1", "5", "3"), mappedList);
+        assertEquals(List.of(1), updatedIndices);
+        assertEquals(1, mapperCalls.get());
+
+        // the dependencies follow the source values when they are permuted
+        FXCollections.sort(observableList, Comparator.comparingInt(IntegerProperty::get).reversed());
+        updatedIndices.clear();
+
+        first.set(4);
+
+        assertEquals(List.of("5", "3", "4"), mappedList);
+        assertEquals(List.of(2), updatedIndices);
+
+        // removed source values are not observed anymore
+        observableList.remove(second);
+        updatedIndices.clear();
+        mapperCalls.set(0);
+
+        second.set(6);
+
+        assertEquals(List.of("3", "4"), mappedList);
+        assertEquals(List.of(), updatedIndices);
+        assertEquals(0, mapperCalls.get());
+
+        // without a dependency function the properties are not observed
+        mappedList.setDependencies(null);
+
+        third.set(7);
+
+        assertEquals(List.of("3", "4"), mappedList);
+        assertEquals(0, mapperCalls.get());
+    }
+
+    @Test
+    public void testSharedDependencies() {
+        final CountingObservable shared = new CountingObservable();
+        final CountingObservable other = new CountingObservable();
+
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final AtomicInteger suffix = new AtomicInteger();
+
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList,
+                value -> value + ":" + (value > 4 ? suffix.get() : 0));
+
+        // only values larger than four depend on the shared observable
+        mappedList.setDependencies(
+                value -> value > 4 ? new Observable[] { shared, shared } : new Observable[] { other });
+
+        final List<Integer> updatedIndices = new ArrayList<>();
+        final AtomicInteger changes = new AtomicInteger();
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> {
+            changes.incrementAndGet();
+
+            while (change.next()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    updatedIndices.add(i);
+                }
+            }
+        });
+
+        // every distinct observable is observed by a single listener
+        assertEquals(1, shared.listeners.size());
+        assertEquals(1, other.listeners.size());
+
+        suffix.set(1);
+        shared.invalidate();
+
+        assertEquals(List.of("3:0", "7:1", "1:0", "5:1"), mappedList);
+        assertEquals(List.of(1, 3), updatedIndices);
+        assertEquals(1, changes.get());
+
+        // the listener is removed together with the last depending source value
+        observableList.removeAll(7, 5);
+
+        assertEquals(0, shared.listeners.size());
+        assertEquals(1, other.listeners.size());
+
+        observableList.add(8);
+
+        assertEquals(1, shared.listeners.size());
+
+        mappedList.dispose();
+
+        assertEquals(0, shared.listeners.size());
+        assertEquals(0, other.listeners.size());
+    }
+
+    @Test
+    public void testDispose() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final ObjectProperty<Function<? super Integer, ? extends String>> mapper = new SimpleObjectProperty<>(
+                String::valueOf);
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, mapper);
+
+        final List<String> actual = new ArrayList<>();
+        final AtomicInteger changes = new AtomicInteger();
+
+        Bindings.bindContent(actual, mappedList);
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> changes.incrementAndGet());
+
+        mappedList.dispose();
+
+        assertTrue(mappedList.isDisposed());
+        assertEquals(List.of(), mappedList);
+        assertEquals(List.of(), actual);
+        assertEquals(1, changes.get());
+
+        // neither the source list nor the mapper are observed anymore
+        observableList.add(8);
+        mapper.set(i -> i + "!");
+
+        assertEquals(List.of(), mappedList);
+        assertEquals(1, changes.get());
+    }
+
+    @Test
+    public void testDisposeWithMoveDetection() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, String::valueOf);
+
+        mappedList.setMoveDetection(true);
+        mappedList.dispose();
+
+        // exceptions thrown by list listeners are passed to the uncaught exception handler
+        final List<Throwable> exceptions = new ArrayList<>();
+        final Thread.UncaughtExceptionHandler previousHandler = Thread.currentThread().getUncaughtExceptionHandler();
+
+        Thread.currentThread().setUncaughtExceptionHandler((thread, exception) -> exceptions.add(exception));
+
+        try {
+            // the removed values are not looked up in the released mapped values
+            observableList.remove(0);
+            observableList.setAll(1, 5, 7);
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(previousHandler);
+        }
+
+        assertEquals(List.of(), exceptions);
+        assertEquals(List.of(), mappedList);
+    }
+
+    @Test
+    public void testWeakMapperListener() throws InterruptedException {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final ObjectProperty<Function<? super Integer, ? extends String>> mapper = new SimpleObjectProperty<>(
+                String::valueOf);
+
+        MappedList<String, Integer> mappedList = new MappedList<>(observableList, mapper, true);
+
+        mapper.set(i -> i + "!");
+
+        assertEquals(List.of("3!", "7!", "1!", "5!"), mappedList);
+
+        final WeakReference<MappedList<String, Integer>> reference = new WeakReference<>(mappedList);
+        mappedList = null;
+
+        for (int attempt = 0; attempt < 10 && reference.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // the mapper property does not keep the list alive
+        assertNull(reference.get());
+    }
+
+    @Test
+    public void testSnapshot() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, String::valueOf);
+
+        final List<String> snapshot = mappedList.snapshot();
+
+        observableList.add(0, 9);
+        observableList.set(2, 8);
+        FXCollections.sort(observableList);
+
+        // the snapshot is not affected by later changes
+        assertEquals(List.of("3", "7", "1", "5"), snapshot);
+        assertEquals(List.of("1", "3", "5", "8", "9"), mappedList.snapshot());
+
+        try {
+            snapshot.add("2");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        assertEquals(4, snapshot.size());
+    }
+
+    @Test
+    public void testSnapshotsOfRandomChanges() {
+        final Random random = new Random(42);
+
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList();
+        final MappedList<Integer, Integer> mappedList = new MappedList<>(observableList, value -> value * 2);
+
+        final List<List<Integer>> snapshots = new ArrayList<>();
+        final List<List<Integer>> expectedSnapshots = new ArrayList<>();
+
+        for (int step = 0; step < 500; step++) {
+            final int size = observableList.size();
+
+            switch (random.nextInt(5)) {
+                case 0:
+                    observableList.addAll(random.nextInt(size + 1),
+                            random.ints(random.nextInt(80), 0, 100).boxed().collect(Collectors.toList()));
+                    break;
+                case 1:
+                    for (int count = random.nextInt(40); count > 0; count--) {
+                        observableList.add(random.nextInt(observableList.size() + 1), random.nextInt(100));
+                    }
+                    break;
+                case 2:
+                    if (size > 0) {
+                        final int from = random.nextInt(size);
+
+                        observableList.remove(from, Math.min(size, from + random.nextInt(40) + 1));
+                    }
+                    break;
+                case 3:
+                    for (int count = random.nextInt(10); count > 0 && !observableList.isEmpty(); count--) {
+                        final int index = random.nextInt(observableList.size());
+
+                        if (random.nextBoolean()) {
+                            observableList.set(index, random.nextInt(100));
+                        } else {
+                            observableList.remove(index);
+                        }
+                    }
+                    break;
+                default:
+                    final int factor = random.nextInt(100);
+
+                    FXCollections.sort(observableList, Comparator.comparing(value -> value * factor % 101));
+                    break;
+            }
+
+            final List<Integer> expected = observableList.stream().map(value -> value * 2)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, mappedList);
+
+            snapshots.add(mappedList.snapshot());
+            expectedSnapshots.add(expected);
+        }
+
+        // all snapshots still contain the values at the time they were taken
+        assertEquals(expectedSnapshots, snapshots);
+    }
+
+    @Test
+    public void testSetAllReportsSingleReplace() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, String::valueOf);
+
+        final List<String> actual = new ArrayList<>();
+        final List<String> subChanges = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> {
+            while (change.next()) {
+                subChanges.add(change.getFrom() + ":" + change.getRemoved() + "->" + change.getAddedSubList());
+            }
+        });
+
+        observableList.setAll(2, 4, 6);
+
+        assertEquals(List.of("2", "4", "6"), mappedList);
+        assertEquals(List.of("2", "4", "6"), actual);
+        assertEquals(List.of("0:[3, 7, 1, 5]->[2, 4, 6]"), subChanges);
+
+        subChanges.clear();
+
+        observableList.set(1, 8);
+
+        assertEquals(List.of("2", "8", "6"), mappedList);
+        assertEquals(List.of("2", "8", "6"), actual);
+        assertEquals(List.of("1:[4]->[8]"), subChanges);
+    }
+
+    @Test
+    public void testSizeAndGetDoNotAllocate() {
+        final ObservableList<Integer> observableList = FXCollections
+                .observableArrayList(IntStream.range(0, 10_000).boxed().collect(Collectors.toList()));
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, String::valueOf);
+
+        // warm up the measured code and the measurement itself
+        long checksum = readAll(mappedList) + allocatedBytes();
+
+        final long before = allocatedBytes();
+
+        for (int round = 0; round < 10; round++) {
+            checksum += readAll(mappedList);
+        }
+
+        final long allocated = allocatedBytes() - before;
+
+        assertTrue(checksum > 0);
+        assertTrue("size() and get() allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    @Test
+    public void testSmallPermutationAllocations() {
+        final int size = 100_000;
+
+        final PermutableList permutableList = new PermutableList(size);
+        final MappedList<Integer, Integer> mappedList = new MappedList<>(permutableList, value -> value);
+
+        for (int i = 0; i < 1_000; i++) {
+            permutableList.swap(i, i + 1);
+        }
+
+        final long before = allocatedBytes();
+
+        for (int i = 0; i < 1_000; i++) {
+            permutableList.swap(i, i + 1);
+        }
+
+        final long allocated = allocatedBytes() - before;
+
+        // the permutation array is pooled, the remaining allocations per swap are the copied path of the persistent
+        // vector including the chunk of the swapped values, the range-sized array of the permuted values, the change
+        // objects and the permutation created by the source list, which amount to less than 1 KB on average
+        assertTrue("1000 swaps allocated " + allocated + " bytes", allocated < 1_000 * 2 * 1024);
+        assertEquals(permutableList, mappedList);
+    }
+
+    /**
+     * Reads the size and all values of the given list
+     *
+     * @param list The list
+     * @return A checksum of the read values
+     */
+    private static long readAll(List<String> list) {
+        long checksum = 0;
+
+        for (int i = 0; i < list.size(); i++) {
+            checksum += list.get(i).length();
+        }
+
+        return checksum;
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread
+     *
+     * @return The number of allocated bytes
+     */
+    private static long allocatedBytes() {
+        try {
+            return (long) ThreadAllocation.GET_ALLOCATED_BYTES.invoke(ThreadAllocation.THREAD_BEAN,
+                    Thread.currentThread().getId());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The thread bean used to measure allocations.
+     * The bean is accessed reflectively, because this module does not read the management modules
+     */
+    private static class ThreadAllocation {
+        private static final Object THREAD_BEAN;
+
+        private static final Method GET_ALLOCATED_BYTES;
+
+        static {
+            try {
+                THREAD_BEAN = Class.forName("java.lang.management.ManagementFactory")
+                        .getMethod("getThreadMXBean").invoke(null);
+                GET_ALLOCATED_BYTES = Class.forName("com.sun.management.ThreadMXBean")
+                        .getMethod("getThreadAllocatedBytes", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    /**
+     * An observable list of integers, which only supports swapping two values
+     */
+    private static class PermutableList extends ObservableListBase<Integer> {
+        private final int[] values;
+
+        private PermutableList(int size) {
+            this.values = IntStream.range(0, size).toArray();
+        }
+
+        @Override
+        public Integer get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * Swaps the values at the given indices, where <code>first</code> is smaller than <code>second</code>
+         *
+         * @param first  The first index
+         * @param second The second index
+         */
+        private void swap(int first, int second) {
+            final int value = values[first];
+
+            values[first] = values[second];
+            values[second] = value;
+
+            final int[] perm = IntStream.rangeClosed(first, second).toArray();
+
+            perm[0] = second;
+            perm[perm.length - 1] = first;
+
+            beginChange();
+            nextPermutation(first, second + 1, perm);
+            endChange();
+        }
+    }
+
+    /**
+     * An observable list of integers, which only supports updating all values at once
+     */
+    private static class UpdatableList extends ObservableListBase<Integer> {
+        private final int[] values;
+
+        private UpdatableList(int... values) {
+            this.values = values;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * Replaces all values with the given values and reports every index as updated
+         *
+         * @param newValues The new values, which need to have the same size as the list
+         */
+        private void update(int... newValues) {
+            System.arraycopy(newValues, 0, values, 0, values.length);
+
+            beginChange();
+            for (int i = 0; i < values.length; i++) {
+                nextUpdate(i);
+            }
+            endChange();
+        }
+    }
+
+    /**
+     * An observable, which counts its listeners and is invalidated manually
+     */
+    private static class CountingObservable implements Observable {
+        private final List<InvalidationListener> listeners = new ArrayList<>();
+
+        @Override
+        public void addListener(InvalidationListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeListener(InvalidationListener listener) {
+            listeners.remove(listener);
+        }
+
+        /**
+         * Informs all listeners about an invalidation of this observable
+         */
+        private void invalidate() {
+            new ArrayList<>(listeners).forEach(listener -> listener.invalidated(this));
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package org.phoenicis.javafx.collections;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentVectorTest {
+    @Test
+    public void testRandomEdits() {
+        final Random random = new Random(42);
+
+        final List<Integer> expected = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+
+        for (int i = 0; i < 20000; i++) {
+            final int operation = random.nextInt(4);
+
+            if (operation == 0 || expected.size() < 10) {
+                final int index = random.nextInt(expected.size() + 1);
+                final List<Integer> values = IntStream.range(0, 1 + random.nextInt(40)).boxed()
+                        .collect(Collectors.toList());
+
+                expected.addAll(index, values);
+                vector = vector.withInserted(index, values);
+            } else if (operation == 1) {
+                final int index = random.nextInt(expected.size() + 1);
+
+                expected.add(index, i);
+                vector = vector.withInserted(index, List.of(i));
+            } else if (operation == 2) {
+                final int from = random.nextInt(expected.size());
+                final int to = Math.min(expected.size(), from + 1 + random.nextInt(40));
+
+                expected.subList(from, to).clear();
+                vector = vector.withRemoved(from, to);
+            } else {
+                final int from = random.nextInt(expected.size());
+                final int to = from + random.nextInt(expected.size() - from + 1);
+
+                final PersistentVector<Integer> slice = vector.slice(from, to);
+
+                expected.addAll(expected.subList(from, to));
+                vector = vector.concat(slice);
+            }
+
+            if (expected.size() > 2000) {
+                expected.subList(0, 1000).clear();
+                vector = vector.withRemoved(0, 1000);
+            }
+        }
+
+        assertEquals(expected, vector);
+        assertEquals(expected, new ArrayList<>(vector));
+    }
+
+    @Test
+    public void testRemovalsCoalesceChunks() {
+        final List<Integer> values = IntStream.range(0, 3200).boxed().collect(Collectors.toList());
+
+        PersistentVector<Integer> vector = PersistentVector.of(values);
+
+        // removes all values but one from every chunk
+        for (int chunk = 99; chunk >= 0; chunk--) {
+            vector = vector.withRemoved(chunk * PersistentVector.CHUNK_SIZE + 1,
+                    (chunk + 1) * PersistentVector.CHUNK_SIZE);
+        }
+
+        assertEquals(IntStream.range(0, 100).map(index -> index * PersistentVector.CHUNK_SIZE).boxed()
+                .collect(Collectors.toList()), vector);
+        assertTrue(vector.chunkCount() <= 100 / PersistentVector.CHUNK_SIZE + 2);
+    }
+
+    @Test
+    public void testConcatCoalescesChunks() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+
+        for (int i = 0; i < 320; i++) {
+            vector = vector.concat(PersistentVector.of(List.of(i)));
+        }
+
+        assertEquals(IntStream.range(0, 320).boxed().collect(Collectors.toList()), vector);
+        assertEquals(320 / PersistentVector.CHUNK_SIZE, vector.chunkCount());
+    }
+}
@@ -0,0 +1,286 @@
+package org.phoenicis.javafx.collections;
+
+import javafx.beans.binding.Bindings;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TransformationListBaseTest {
+    @Test
+    public void testStatisticsDisabledByDefault() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, String::valueOf);
+
+        assertFalse(mappedList.isStatisticsEnabled());
+        assertNull(mappedList.getStatistics());
+    }
+
+    @Test
+    public void testStatistics() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final SortedList<Integer> sortedList = observableList.sorted(Comparator.naturalOrder());
+        final MappedList<String, Integer> mappedList = new MappedList<>(sortedList, String::valueOf);
+
+        mappedList.setStatisticsEnabled(true);
+
+        final TransformationListStatistics statistics = mappedList.getStatistics();
+
+        observableList.addAll(2, 4);
+
+        assertEquals(1, statistics.getSourceChanges());
+        assertEquals(2, statistics.getAddRemoves());
+        assertEquals(2, statistics.getTouchedElements());
+        assertEquals(1, statistics.getFiredChanges());
+        assertEquals(2, statistics.getFiredSubChanges());
+        assertEquals(2, statistics.getFiredElements());
+
+        sortedList.setComparator(Comparator.reverseOrder());
+
+        assertEquals(2, statistics.getSourceChanges());
+        assertEquals(1, statistics.getPermutations());
+        assertEquals(8, statistics.getTouchedElements());
+        assertEquals(2, statistics.getFiredChanges());
+        assertEquals(8, statistics.getFiredElements());
+        assertTrue(statistics.getPermuteNanos() >= 0);
+
+        statistics.reset();
+
+        assertEquals(0, statistics.getSourceChanges());
+        assertEquals(0, statistics.getFiredChanges());
+
+        mappedList.setStatisticsEnabled(false);
+
+        observableList.add(6);
+
+        assertEquals(0, statistics.getSourceChanges());
+        assertEquals(0, statistics.getFiredChanges());
+        assertNull(mappedList.getStatistics());
+    }
+
+    @Test
+    public void testDeferredChanges() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, String::valueOf);
+
+        final List<Runnable> scheduled = new ArrayList<>();
+        final List<String> actual = new ArrayList<>();
+        final AtomicInteger changes = new AtomicInteger();
+
+        Bindings.bindContent(actual, mappedList);
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> changes.incrementAndGet());
+        mappedList.setChangeScheduler(scheduled::add);
+
+        observableList.add(0, 2);
+        observableList.remove(Integer.valueOf(7));
+        observableList.set(1, 4);
+        observableList.addAll(8, 9);
+
+        // the list itself is already up to date
+        assertEquals(List.of("2", "4", "1", "5", "8", "9"), mappedList);
+
+        // but no change has been fired yet
+        assertEquals(0, changes.get());
+        assertEquals(List.of("3", "7", "1", "5"), actual);
+        assertEquals(1, scheduled.size());
+
+        scheduled.forEach(Runnable::run);
+
+        assertEquals(1, changes.get());
+        assertEquals(List.of("2", "4", "1", "5", "8", "9"), actual);
+    }
+
+    @Test
+    public void testExplicitFlush() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("11");
+        final ObservableList<String> list2 = FXCollections.observableArrayList("21", "22");
+
+        final ObservableList<ObservableList<String>> observableList = FXCollections
+                .observableArrayList(List.of(list1, list2));
+        final ConcatenatedList<String> concatenatedList = new ConcatenatedList<>(observableList);
+
+        final List<String> actual = new ArrayList<>();
+        final AtomicInteger changes = new AtomicInteger();
+
+        Bindings.bindContent(actual, concatenatedList);
+
+        concatenatedList.addListener((ListChangeListener.Change<? extends String> change) -> changes.incrementAndGet());
+
+        // the scheduled flushes are never executed
+        concatenatedList.setChangeScheduler(runnable -> {
+        });
+
+        list1.add("12");
+        observableList.add(FXCollections.observableArrayList("31"));
+        list2.remove(0);
+
+        assertEquals(0, changes.get());
+
+        concatenatedList.flush();
+
+        assertEquals(1, changes.get());
+        assertEquals(List.of("11", "12", "22", "31"), actual);
+
+        list1.clear();
+
+        assertEquals(1, changes.get());
+
+        // removing the scheduler flushes the open change
+        concatenatedList.setChangeScheduler(null);
+
+        assertEquals(2, changes.get());
+        assertEquals(List.of("22", "31"), actual);
+
+        list2.clear();
+
+        assertEquals(3, changes.get());
+        assertEquals(List.of("31"), actual);
+    }
+
+    @Test
+    public void testDeferredPermutations() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final SortedList<Integer> sortedList = observableList.sorted(Comparator.naturalOrder());
+        final MappedList<String, Integer> mappedList = new MappedList<>(sortedList, String::valueOf);
+
+        final List<Runnable> scheduled = new ArrayList<>();
+        final List<String> actual = new ArrayList<>();
+
+        Bindings.bindContent(actual, mappedList);
+
+        // the permutation arrays of both permutations are referenced by the deferred change
+        mappedList.setChangeScheduler(scheduled::add);
+
+        sortedList.setComparator(Comparator.reverseOrder());
+        sortedList.setComparator(Comparator.comparing(value -> value % 3));
+
+        scheduled.forEach(Runnable::run);
+
+        assertEquals(List.of("3", "7", "1", "5"), mappedList);
+        assertEquals(List.of("3", "7", "1", "5"), actual);
+
+        // the permutation array is reused after the change has been fired
+        mappedList.setChangeScheduler(null);
+
+        sortedList.setComparator(Comparator.naturalOrder());
+        sortedList.setComparator(Comparator.reverseOrder());
+
+        assertEquals(List.of("7", "5", "3", "1"), actual);
+    }
+
+    @Test
+    public void testDeferredListInChain() {
+        final ObservableList<String> list1 = FXCollections.observableArrayList("11");
+        final ObservableList<String> list2 = FXCollections.observableArrayList("21", "22");
+
+        final ConcatenatedList<String> concatenatedList = ConcatenatedList.create(list1, list2);
+
+        concatenatedList.setChangeScheduler(runnable -> {
+        });
+
+        // the deferred list already reports its new values, which would be inconsistent with a mapped list on top
+        try {
+            new MappedList<>(concatenatedList, String::length);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        concatenatedList.setChangeScheduler(null);
+
+        final MappedList<Integer, String> mappedList = new MappedList<>(concatenatedList, String::length);
+
+        try {
+            concatenatedList.setChangeScheduler(runnable -> {
+            });
+
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // exceptions thrown by list listeners are passed to the uncaught exception handler
+        final List<Throwable> exceptions = new ArrayList<>();
+        final Thread.UncaughtExceptionHandler previousHandler = Thread.currentThread().getUncaughtExceptionHandler();
+
+        Thread.currentThread().setUncaughtExceptionHandler((thread, exception) -> exceptions.add(exception));
+
+        try {
+            // the chained lists stay consistent, because the changes are fired immediately and the rejected list
+            // does not observe the concatenated list
+            list2.add("333");
+
+            assertEquals(List.of(2, 2, 2, 3), mappedList);
+            assertEquals(3, (int) mappedList.get(mappedList.size() - 1));
+
+            // a disposed list does not observe its source anymore
+            mappedList.dispose();
+
+            concatenatedList.setChangeScheduler(runnable -> {
+            });
+
+            list1.clear();
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(previousHandler);
+        }
+
+        assertEquals(List.of(), exceptions);
+        assertEquals(List.of("21", "22", "333"), concatenatedList);
+    }
+
+    @Test
+    public void testExceptionDuringSourceChange() {
+        final ObservableList<Integer> observableList = FXCollections.observableArrayList(List.of(3, 7, 1, 5));
+        final AtomicBoolean failing = new AtomicBoolean(false);
+        final MappedList<String, Integer> mappedList = new MappedList<>(observableList, value -> {
+            if (failing.get()) {
+                throw new IllegalStateException("Mapper failed");
+            }
+
+            return String.valueOf(value);
+        });
+
+        final AtomicInteger changes = new AtomicInteger();
+
+        mappedList.addListener((ListChangeListener.Change<? extends String> change) -> changes.incrementAndGet());
+
+        // exceptions thrown by list listeners are passed to the uncaught exception handler
+        final List<Throwable> exceptions = new ArrayList<>();
+        final Thread.UncaughtExceptionHandler previousHandler = Thread.currentThread().getUncaughtExceptionHandler();
+
+        Thread.currentThread().setUncaughtExceptionHandler((thread, exception) -> exceptions.add(exception));
+
+        failing.set(true);
+
+        try {
+            observableList.set(0, 4);
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(previousHandler);
+        }
+
+        assertEquals(1, exceptions.size());
+
+        failing.set(false);
+
+        // the failed change has been closed, therefore the following changes are fired again
+        observableList.set(0, 4);
+
+        assertEquals(List.of("4", "7", "1", "5"), mappedList);
+        assertEquals(1, changes.get());
+    }
+}